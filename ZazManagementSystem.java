@@ -4,25 +4,44 @@ import db.*;
 import managment.ManagementSystem;
 import search.SearchHistory;
 import repository.*;
+import repository.cache.*;
 import repository.jdbc.*;
 import service.*;
 import filter.*;
 import builder.CharacterBuilder;
+import importer.CatalogImporter;
+import importer.ImportResult;
 
-import java.sql.Connection;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class ZazManagementSystem {
-    private DatabaseConnectionProvider provider;
+    private static final int SEARCH_LIMIT = 50;
+    private static final int PAGE_SIZE = 20;
+    private static final int LEADERBOARD_LIMIT = 10;
+    private static final int RECOMMENDATION_LIMIT = 5;
+    private static final int SUGGESTION_LIMIT = 10;
+    private static final int MEDIA_CACHE_SIZE = 1_000;
+    private static final int CHARACTER_CACHE_SIZE = 5_000;
+    private static final long CACHE_TTL_MILLIS = 10 * 60 * 1000;
+
+    private SQLiteConnectionPool provider;
     private DatabaseManager dbManager;
     private Scanner scanner;
     private User currentUser;
     private SearchHistory searchHistory;
     private ManagementSystem facade;
+    private CachingMediaRepository mediaCache;
+    private CachingCharacterRepository characterCache;
 
     public ZazManagementSystem() {
-        provider = new SQLiteConnection();
+        provider = new SQLiteConnectionPool(new PoolConfig());
         dbManager = new DatabaseManager(provider);
         scanner = new Scanner(System.in);
         searchHistory = new SearchHistory();
@@ -30,19 +49,32 @@ public class ZazManagementSystem {
     }
 
     private void initializeFacade() {
-        Connection conn = dbManager.getConnection();
-
-        CharacterRepository charRepo = new JdbcCharacterRepository(conn);
-        MediaRepository mediaRepo = new JdbcMediaRepository(conn, charRepo);
-        UserRepository userRepo = new JdbcUserRepository(conn);
-        FavoriteRepository favRepo = new JdbcFavoriteRepository(conn, charRepo);
+        DatabaseConnectionProvider db = dbManager.getProvider();
+
+        CharacterRepository jdbcCharRepo = new JdbcCharacterRepository(db);
+        CachingMediaRepository mediaRepo = new CachingMediaRepository(
+                new JdbcMediaRepository(db, jdbcCharRepo), MEDIA_CACHE_SIZE, CACHE_TTL_MILLIS);
+        CachingCharacterRepository charRepo = new CachingCharacterRepository(
+                jdbcCharRepo, mediaRepo, CHARACTER_CACHE_SIZE, CACHE_TTL_MILLIS);
+        mediaCache = mediaRepo;
+        characterCache = charRepo;
+        UserRepository userRepo = new JdbcUserRepository(db);
+        FavoriteRepository favRepo = new JdbcFavoriteRepository(db, charRepo);
+        SearchRepository searchRepo = new JdbcSearchRepository(db);
 
         MediaService mediaService = new MediaService(mediaRepo, charRepo);
         CharacterService characterService = new CharacterService(charRepo);
         UserService userService = new UserService(userRepo);
         FavoriteService favoriteService = new FavoriteService(favRepo);
-
-        facade = new ManagementSystem(mediaService, characterService, userService, favoriteService);
+        favoriteService.loadIndexes();
+        favoriteService.addListener((userId, itemId, isMedia, added) -> {
+            if (isMedia) mediaRepo.invalidateDetails(itemId);
+        });
+        SearchService searchService = new SearchService(searchRepo);
+        mediaService.addListener(searchService);
+        characterService.addListener(searchService);
+
+        facade = new ManagementSystem(mediaService, characterService, userService, favoriteService, searchService);
     }
 
     public void start() {
@@ -130,7 +162,8 @@ public class ZazManagementSystem {
             System.out.println("4. Browse media");
             System.out.println("5. Browse characters");
             System.out.println("6. Search");
-            System.out.println("7. Logout");
+            System.out.println("7. Most favorited");
+            System.out.println("8. Logout");
             System.out.print("Choose option: ");
 
             int choice = scanner.nextInt();
@@ -143,7 +176,8 @@ public class ZazManagementSystem {
                 case 4 -> browseMedia();
                 case 5 -> browseCharacters();
                 case 6 -> search();
-                case 7 -> { return; }
+                case 7 -> showMostFavorited();
+                case 8 -> { return; }
             }
         }
     }
@@ -159,7 +193,10 @@ public class ZazManagementSystem {
             System.out.println("6. Browse media");
             System.out.println("7. Browse characters");
             System.out.println("8. Search");
-            System.out.println("9. Logout");
+            System.out.println("9. Import catalog");
+            System.out.println("10. Most favorited");
+            System.out.println("11. Diagnostics");
+            System.out.println("12. Logout");
             System.out.print("Choose option: ");
 
             int choice = scanner.nextInt();
@@ -174,11 +211,21 @@ public class ZazManagementSystem {
                 case 6 -> browseMedia();
                 case 7 -> browseCharacters();
                 case 8 -> search();
-                case 9 -> { return; }
+                case 9 -> importCatalog();
+                case 10 -> showMostFavorited();
+                case 11 -> showDiagnostics();
+                case 12 -> { return; }
             }
         }
     }
 
+    private void showDiagnostics() {
+        System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ Diagnostics ▀▄▀▄▀▄▀▄▀▄▀▄");
+        System.out.println("Connection pool: " + provider.getMetrics());
+        System.out.println("Media cache: " + mediaCache.getStats());
+        System.out.println("Character cache: " + characterCache.getStats());
+    }
+
     private void showProfile() {
         System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ Profile ▀▄▀▄▀▄▀▄▀▄▀▄");
         System.out.println("Username: " + currentUser.getUsername());
@@ -213,6 +260,14 @@ public class ZazManagementSystem {
         }
     }
 
+    private void addFavorite(int itemId, boolean isMedia) {
+        if (facade.addToFavorites(currentUser.getId(), itemId, isMedia)) {
+            System.out.println("Added to favorites!");
+        } else {
+            System.out.println("Already in favorites!");
+        }
+    }
+
     private void showFavorites() {
         System.out.println("\n1. Favorite Media");
         System.out.println("2. Favorite Characters");
@@ -245,7 +300,9 @@ public class ZazManagementSystem {
         scanner.nextLine();
 
         if (choice > 0 && choice <= favorites.size()) {
-            facade.removeFromFavorites(currentUser.getId(), favorites.get(choice - 1).getId(), true);
+            if (facade.removeFromFavorites(currentUser.getId(), favorites.get(choice - 1).getId(), true)) {
+                System.out.println("Removed from favorites!");
+            }
         } else {
             showProfile();
         }
@@ -269,7 +326,9 @@ public class ZazManagementSystem {
         scanner.nextLine();
 
         if (choice > 0 && choice <= favorites.size()) {
-            facade.removeFromFavorites(currentUser.getId(), favorites.get(choice - 1).getId(), false);
+            if (facade.removeFromFavorites(currentUser.getId(), favorites.get(choice - 1).getId(), false)) {
+                System.out.println("Removed from favorites!");
+            }
         } else {
             showProfile();
         }
@@ -335,23 +394,25 @@ public class ZazManagementSystem {
         System.out.print("Release Date (YYYY-MM-DD): ");
         String releaseDate = scanner.nextLine();
 
+        MediaType[] types = MediaType.selectable();
         System.out.println("\nAvailable types:");
-        for (int i = 0; i < MediaType.TYPES.length; i++) {
-            System.out.println(i + 1 + ". " + MediaType.TYPES[i]);
+        for (int i = 0; i < types.length; i++) {
+            System.out.println(i + 1 + ". " + types[i].getLabel());
         }
         System.out.print("Choose type: ");
         int typeChoice = scanner.nextInt();
         scanner.nextLine();
-        String type = (typeChoice > 0 && typeChoice <= MediaType.TYPES.length) ? MediaType.TYPES[typeChoice - 1] : "OTHER";
+        MediaType type = (typeChoice > 0 && typeChoice <= types.length) ? types[typeChoice - 1] : MediaType.OTHER;
 
+        MediaGenre[] genres = MediaGenre.selectable();
         System.out.println("\nAvailable genres:");
-        for (int i = 0; i < MediaGenre.GENRES.length; i++) {
-            System.out.println(i + 1 + ". " + MediaGenre.GENRES[i]);
+        for (int i = 0; i < genres.length; i++) {
+            System.out.println(i + 1 + ". " + genres[i].getLabel());
         }
         System.out.print("Choose genre: ");
         int genreChoice = scanner.nextInt();
         scanner.nextLine();
-        String genre = (genreChoice > 0 && genreChoice <= MediaGenre.GENRES.length) ? MediaGenre.GENRES[genreChoice - 1] : "Other";
+        MediaGenre genre = (genreChoice > 0 && genreChoice <= genres.length) ? genres[genreChoice - 1] : MediaGenre.OTHER;
 
         System.out.print("Hashtags (comma-separated): ");
         String hashtags = scanner.nextLine();
@@ -361,27 +422,11 @@ public class ZazManagementSystem {
     }
 
     private void createCharacter() {
-        List<Media> mediaList = facade.browseMedia(items -> items);
-        if (mediaList.isEmpty()) {
-            System.out.println("No media available. Create media first!");
+        MediaSummary selectedMedia = chooseMedia();
+        if (selectedMedia == null) {
             return;
         }
 
-        System.out.println("\nAvailable Media:");
-        for (int i = 0; i < mediaList.size(); i++) {
-            System.out.println(i + 1 + ". " + mediaList.get(i).getTitle());
-        }
-
-        System.out.print("Choose media number: ");
-        int mediaChoice = scanner.nextInt();
-        scanner.nextLine();
-
-        if (mediaChoice < 1 || mediaChoice > mediaList.size()) {
-            System.out.println("Invalid choice!");
-            return;
-        }
-
-        Media selectedMedia = mediaList.get(mediaChoice - 1);
         CharacterBuilder builder = new CharacterBuilder();
 
         System.out.print("Character Name: ");
@@ -430,51 +475,132 @@ public class ZazManagementSystem {
         System.out.println("Character created successfully!");
     }
 
+    private MediaSummary chooseMedia() {
+        Page<MediaSummary> page = facade.browseMediaSummaries(new FilterComposite<>(), PageRequest.first(PAGE_SIZE));
+        if (page.getItems().isEmpty()) {
+            System.out.println("No media available. Create media first!");
+            return null;
+        }
+
+        while (true) {
+            List<MediaSummary> mediaList = page.getItems();
+            System.out.println("\nAvailable Media:");
+            for (int i = 0; i < mediaList.size(); i++) {
+                System.out.println(i + 1 + ". " + mediaList.get(i).getTitle());
+            }
+
+            System.out.print("Choose media number" + (page.hasNext() ? ", n for next page" : "")
+                    + (page.hasPrevious() ? ", p for previous page" : "") + ": ");
+            String input = scanner.nextLine().trim();
+            if (input.equalsIgnoreCase("n") && page.hasNext()) {
+                page = facade.browseMediaSummaries(new FilterComposite<>(), page.nextRequest());
+                continue;
+            }
+            if (input.equalsIgnoreCase("p") && page.hasPrevious()) {
+                page = facade.browseMediaSummaries(new FilterComposite<>(), page.previousRequest());
+                continue;
+            }
+
+            try {
+                int mediaChoice = Integer.parseInt(input);
+                if (mediaChoice >= 1 && mediaChoice <= mediaList.size()) {
+                    return mediaList.get(mediaChoice - 1);
+                }
+            } catch (NumberFormatException ignored) {
+            }
+            System.out.println("Invalid choice!");
+            return null;
+        }
+    }
+
     private void browseMedia() {
         FilterComposite<Media> filter = new FilterComposite<>();
-        List<Media> mediaList = facade.browseMedia(filter);
-        browseMediaWithFilter(mediaList);
+        browseMediaWithFilter(filter);
     }
 
-    private void browseMediaWithFilter(List<Media> mediaList) {
-        if (mediaList.isEmpty()) {
-            System.out.println("No media available.");
-            return;
-        }
+    private void browseMediaWithFilter(FilterStrategy<Media> filter) {
+        PageRequest request = PageRequest.first(PAGE_SIZE);
+        int pageNumber = 1;
+        while (true) {
+            Page<MediaSummary> page = facade.browseMediaSummaries(filter, request);
+            List<MediaSummary> mediaList = page.getItems();
+            if (mediaList.isEmpty()) {
+                System.out.println("No media available.");
+                return;
+            }
 
-        System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ All Media ▀▄▀▄▀▄▀▄▀▄▀▄");
-        for (int i = 0; i < mediaList.size(); i++) {
-            System.out.print((i + 1) + ". ");
-            mediaList.get(i).display();
-        }
+            Set<Integer> favorited = facade.getFavoritedIds(currentUser.getId(),
+                    mediaList.stream().map(MediaSummary::getId).toList(), true);
 
-        System.out.println("\n1. Show details");
-        System.out.println("2. Edit filters");
-        System.out.println("3. Go back to menu");
-        System.out.print("Choose option: ");
-        int choice = scanner.nextInt();
-        scanner.nextLine();
+            System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ All Media (page " + pageNumber + ") ▀▄▀▄▀▄▀▄▀▄▀▄");
+            for (int i = 0; i < mediaList.size(); i++) {
+                System.out.print((i + 1) + ". " + (favorited.contains(mediaList.get(i).getId()) ? "★ " : ""));
+                mediaList.get(i).display();
+            }
 
-        switch (choice) {
-            case 1 -> {
-                System.out.print("Choose media number: ");
-                int mediaChoice = scanner.nextInt();
-                scanner.nextLine();
-                if (mediaChoice > 0 && mediaChoice <= mediaList.size()) {
-                    showMediaDetails(mediaList.get(mediaChoice - 1));
+            System.out.println("\n1. Show details");
+            System.out.println("2. Edit filters");
+            System.out.println("3. Go back to menu");
+            printPageOptions(page);
+            System.out.print("Choose option: ");
+            int choice = scanner.nextInt();
+            scanner.nextLine();
+
+            switch (choice) {
+                case 1 -> {
+                    System.out.print("Choose media number: ");
+                    int mediaChoice = scanner.nextInt();
+                    scanner.nextLine();
+                    if (mediaChoice > 0 && mediaChoice <= mediaList.size()) {
+                        showMediaDetails(facade.getMediaDetails(mediaList.get(mediaChoice - 1).getId()));
+                    }
+                    return;
+                }
+                case 2 -> {
+                    editMediaFilters();
+                    return;
+                }
+                case 4 -> {
+                    if (page.hasNext()) {
+                        request = page.nextRequest();
+                        pageNumber++;
+                    }
+                }
+                case 5 -> {
+                    if (page.hasPrevious()) {
+                        request = page.previousRequest();
+                        pageNumber--;
+                    }
+                }
+                default -> {
+                    return;
                 }
             }
-            case 2 -> editMediaFilters();
         }
     }
 
-    private void showMediaDetails(Media media) {
-        System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ Media Details ▀▄▀▄▀▄▀▄▀▄▀▄");
-        System.out.println(media.getDetails());
+    private void printPageOptions(Page<?> page) {
+        if (page.hasNext()) {
+            System.out.println("4. Next page");
+        }
+        if (page.hasPrevious()) {
+            System.out.println("5. Previous page");
+        }
+    }
 
-        String authorName = facade.getMediaAuthorName(media.getId());
-        int authorId = facade.getMediaAuthorId(media.getId());
-        System.out.println("Author: " + authorName);
+    private void showMediaDetails(MediaDetails details) {
+        if (details == null) {
+            System.out.println("Media not found.");
+            return;
+        }
+        Media media = details.getMedia();
+        String authorName = details.getAuthorName();
+        int authorId = details.getAuthorId();
+
+        System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ Media Details ▀▄▀▄▀▄▀▄▀▄▀▄");
+        System.out.println(details.getDetails());
+        printAlsoFavorited(facade.getMediaRecommendations(media.getId(), RECOMMENDATION_LIMIT).stream()
+                .map(Media::getTitle).toList());
 
         System.out.println("\n1. Add to favorites");
         System.out.println("2. Show all characters");
@@ -486,18 +612,24 @@ public class ZazManagementSystem {
 
         switch (choice) {
             case 1 -> {
-                facade.addToFavorites(currentUser.getId(), media.getId(), true);
-                showMediaDetails(media);
+                addFavorite(media.getId(), true);
+                showMediaDetails(facade.getMediaDetails(media.getId()));
             }
             case 2 -> {
                 showMediaCharacters(media);
-                showMediaDetails(media);
+                showMediaDetails(details);
             }
             case 3 -> viewAuthorProfile(authorId, authorName);
             case 4 -> browseMedia();
         }
     }
 
+    private void printAlsoFavorited(List<String> names) {
+        if (!names.isEmpty()) {
+            System.out.println("Fans also favorited: " + String.join(", ", names));
+        }
+    }
+
     private void showMediaCharacters(Media media) {
         if (media.getCharacters().isEmpty()) {
             System.out.println("No characters in this media.");
@@ -524,6 +656,8 @@ public class ZazManagementSystem {
     private void editMediaFilters() {
         FilterComposite<Media> newFilter = new FilterComposite<>();
         Map<String, String> activeFilters = new HashMap<>();
+        Set<MediaType> selectedTypes = EnumSet.noneOf(MediaType.class);
+        Set<MediaGenre> selectedGenres = EnumSet.noneOf(MediaGenre.class);
 
         while (true) {
             System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ Filters ▀▄▀▄▀▄▀▄▀▄▀▄");
@@ -538,59 +672,80 @@ public class ZazManagementSystem {
             scanner.nextLine();
 
             if (choice == 0) {
-                List<Media> filtered = facade.browseMedia(newFilter);
-                browseMediaWithFilter(filtered);
+                browseMediaWithFilter(newFilter);
                 return;
             }
 
             switch (choice) {
                 case 1 -> {
+                    MediaType[] allTypes = MediaType.values();
+                    Map<MediaType, Integer> counts = facade.countMediaByType(selectedGenres);
                     System.out.println("\nTypes:");
-                    for (int i = 0; i < MediaType.TYPES.length; i++) {
-                        System.out.println(i + 1 + ". " + MediaType.TYPES[i]);
+                    for (int i = 0; i < allTypes.length; i++) {
+                        System.out.println(i + 1 + ". " + allTypes[i].getLabel() + " (" + counts.get(allTypes[i]) + ")");
                     }
                     System.out.print("Choose types (comma-separated): ");
                     String input = scanner.nextLine();
-                    Set<String> types = Arrays.stream(input.split(","))
+                    Set<MediaType> types = Arrays.stream(input.split(","))
                             .map(String::trim)
                             .map(Integer::parseInt)
-                            .filter(i -> i > 0 && i <= MediaType.TYPES.length)
-                            .map(i -> MediaType.TYPES[i - 1])
-                            .collect(Collectors.toSet());
+                            .filter(i -> i > 0 && i <= allTypes.length)
+                            .map(i -> allTypes[i - 1])
+                            .collect(Collectors.toCollection(() -> EnumSet.noneOf(MediaType.class)));
                     if (!types.isEmpty()) {
                         newFilter.add(new TypeFilterStrategy(types));
-                        activeFilters.put("Type", String.join(", ", types));
+                        selectedTypes = types;
+                        int matching = facade.countMedia(selectedTypes, selectedGenres);
+                        activeFilters.put("Type", types.stream().map(MediaType::getLabel).collect(Collectors.joining(", "))
+                                + " (" + matching + " media)");
                     }
                 }
                 case 2 -> {
+                    MediaGenre[] allGenres = MediaGenre.values();
+                    Map<MediaGenre, Integer> counts = facade.countMediaByGenre(selectedTypes);
                     System.out.println("\nGenres:");
-                    for (int i = 0; i < MediaGenre.GENRES.length; i++) {
-                        System.out.println(i + 1 + ". " + MediaGenre.GENRES[i]);
+                    for (int i = 0; i < allGenres.length; i++) {
+                        System.out.println(i + 1 + ". " + allGenres[i].getLabel() + " (" + counts.get(allGenres[i]) + ")");
                     }
                     System.out.print("Choose genres (comma-separated): ");
                     String input = scanner.nextLine();
-                    Set<String> genres = Arrays.stream(input.split(","))
+                    Set<MediaGenre> genres = Arrays.stream(input.split(","))
                             .map(String::trim)
                             .map(Integer::parseInt)
-                            .filter(i -> i > 0 && i <= MediaGenre.GENRES.length)
-                            .map(i -> MediaGenre.GENRES[i - 1])
-                            .collect(Collectors.toSet());
+                            .filter(i -> i > 0 && i <= allGenres.length)
+                            .map(i -> allGenres[i - 1])
+                            .collect(Collectors.toCollection(() -> EnumSet.noneOf(MediaGenre.class)));
                     if (!genres.isEmpty()) {
                         newFilter.add(new GenreFilterStrategy(genres));
-                        activeFilters.put("Genre", String.join(", ", genres));
+                        selectedGenres = genres;
+                        int matching = facade.countMedia(selectedTypes, selectedGenres);
+                        activeFilters.put("Genre", genres.stream().map(MediaGenre::getLabel).collect(Collectors.joining(", "))
+                                + " (" + matching + " media)");
                     }
                 }
                 case 3 -> {
-                    System.out.print("Enter release date (YYYY or YYYY-MM-DD): ");
+                    System.out.print("Enter release date (YYYY, YYYY-MM, YYYY-MM-DD, YYYY-YYYY or FROM..TO): ");
                     String date = scanner.nextLine();
-                    newFilter.add(new ReleaseDateFilterStrategy(date));
-                    activeFilters.put("Release date", String.join(", ", date));
+                    try {
+                        newFilter.add(ReleaseDateFilterStrategy.parse(date));
+                        activeFilters.put("Release date", String.join(", ", date));
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Invalid release date!");
+                    }
                 }
                 case 4 -> {
-                    System.out.print("Enter hashtag: ");
+                    System.out.print("Enter hashtags (a, b = all of them; a | b = any of them): ");
                     String hashtag = scanner.nextLine();
-                    newFilter.add(new HashtagMediaFilterStrategy(hashtag));
-                    activeFilters.put("Hashtag", String.join(", ", hashtag));
+                    try {
+                        HashtagMediaFilterStrategy tagFilter = hashtag.contains("|")
+                                ? HashtagMediaFilterStrategy.anyOf(hashtag.replace('|', ','))
+                                : HashtagMediaFilterStrategy.allOf(hashtag);
+                        int matching = facade.countMediaWithTags(tagFilter.getTags(), tagFilter.isMatchAll());
+                        newFilter.add(tagFilter);
+                        activeFilters.put("Hashtag", hashtag + " (" + matching + " media)");
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Invalid hashtags!");
+                    }
                 }
             }
         }
@@ -598,39 +753,69 @@ public class ZazManagementSystem {
 
     private void browseCharacters() {
         FilterComposite<Character> filter = new FilterComposite<>();
-        List<Character> characters = facade.browseCharacters(filter);
-        browseCharactersWithFilter(characters);
+        browseCharactersWithFilter(filter);
     }
 
-    private void browseCharactersWithFilter(List<Character> characters) {
-        if (characters.isEmpty()) {
-            System.out.println("No characters available.");
-            return;
-        }
+    private void browseCharactersWithFilter(FilterStrategy<Character> filter) {
+        PageRequest request = PageRequest.first(PAGE_SIZE);
+        int pageNumber = 1;
+        while (true) {
+            Page<CharacterSummary> page = facade.browseCharacterSummaries(filter, request);
+            List<CharacterSummary> characters = page.getItems();
+            if (characters.isEmpty()) {
+                System.out.println("No characters available.");
+                return;
+            }
 
-        System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ All Characters ▀▄▀▄▀▄▀▄▀▄▀▄");
-        for (int i = 0; i < characters.size(); i++) {
-            Media media = facade.viewMediaDetails(characters.get(i).getMediaId());
-            System.out.println(i + 1 + ". " + characters.get(i).getName() + " | " + media.getTitle());
-        }
+            Set<Integer> favorited = facade.getFavoritedIds(currentUser.getId(),
+                    characters.stream().map(CharacterSummary::getId).toList(), false);
 
-        System.out.println("\n1. Show details");
-        System.out.println("2. Edit filters");
-        System.out.println("3. Go back to menu");
-        System.out.print("Choose option: ");
-        int choice = scanner.nextInt();
-        scanner.nextLine();
+            System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ All Characters (page " + pageNumber + ") ▀▄▀▄▀▄▀▄▀▄▀▄");
+            for (int i = 0; i < characters.size(); i++) {
+                CharacterSummary summary = characters.get(i);
+                String mediaTitle = summary.getMediaTitle() != null ? summary.getMediaTitle()
+                        : facade.viewMediaDetails(summary.getMediaId()).getTitle();
+                System.out.println(i + 1 + ". " + (favorited.contains(summary.getId()) ? "★ " : "") + summary.getName() + " | " + mediaTitle);
+            }
 
-        switch (choice) {
-            case 1 -> {
-                System.out.print("Choose character number: ");
-                int charChoice = scanner.nextInt();
-                scanner.nextLine();
-                if (charChoice > 0 && charChoice <= characters.size()) {
-                    showCharacterDetails(characters.get(charChoice - 1));
+            System.out.println("\n1. Show details");
+            System.out.println("2. Edit filters");
+            System.out.println("3. Go back to menu");
+            printPageOptions(page);
+            System.out.print("Choose option: ");
+            int choice = scanner.nextInt();
+            scanner.nextLine();
+
+            switch (choice) {
+                case 1 -> {
+                    System.out.print("Choose character number: ");
+                    int charChoice = scanner.nextInt();
+                    scanner.nextLine();
+                    if (charChoice > 0 && charChoice <= characters.size()) {
+                        showCharacterDetails(facade.viewCharacterDetails(characters.get(charChoice - 1).getId()));
+                    }
+                    return;
+                }
+                case 2 -> {
+                    editCharacterFilters();
+                    return;
+                }
+                case 4 -> {
+                    if (page.hasNext()) {
+                        request = page.nextRequest();
+                        pageNumber++;
+                    }
+                }
+                case 5 -> {
+                    if (page.hasPrevious()) {
+                        request = page.previousRequest();
+                        pageNumber--;
+                    }
+                }
+                default -> {
+                    return;
                 }
             }
-            case 2 -> editCharacterFilters();
         }
     }
 
@@ -638,14 +823,15 @@ public class ZazManagementSystem {
         System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ Character Details ▀▄▀▄▀▄▀▄▀▄▀▄");
         System.out.println(character.getDetails());
 
-        Media media = facade.viewMediaDetails(character.getMediaId());
+        MediaDetails media = facade.getMediaDetails(character.getMediaId());
+        String authorName = media != null ? media.getAuthorName() : null;
+        int authorId = media != null ? media.getAuthorId() : -1;
         if (media != null) {
             System.out.println("From Media: " + media.getTitle());
         }
-
-        String authorName = facade.getMediaAuthorName(character.getMediaId());
-        int authorId = facade.getMediaAuthorId(character.getMediaId());
         System.out.println("Author: " + authorName);
+        printAlsoFavorited(facade.getCharacterRecommendations(character.getId(), RECOMMENDATION_LIMIT).stream()
+                .map(Character::getName).toList());
 
         System.out.println("\n1. Add to favorites");
         System.out.println("2. View author's profile");
@@ -656,7 +842,7 @@ public class ZazManagementSystem {
 
         switch (choice) {
             case 1 -> {
-                facade.addToFavorites(currentUser.getId(), character.getId(), false);
+                addFavorite(character.getId(), false);
                 showCharacterDetails(character);
             }
             case 2 -> viewAuthorProfile(authorId, authorName);
@@ -682,23 +868,32 @@ public class ZazManagementSystem {
             scanner.nextLine();
 
             if (choice == 0) {
-                List<Character> filtered = facade.browseCharacters(newFilter);
-                browseCharactersWithFilter(filtered);
+                browseCharactersWithFilter(newFilter);
                 return;
             }
 
             switch (choice) {
                 case 1 -> {
-                    System.out.print("Enter age: ");
+                    System.out.print("Enter age (25, 20-30, 20+ or -30): ");
                     String age = scanner.nextLine();
-                    newFilter.add(new AgeCharacterFilterStrategy(age));
-                    activeFilters.put("Age", String.join(", ", age));
+                    try {
+                        AgeCharacterFilterStrategy ageFilter = AgeCharacterFilterStrategy.parse(age);
+                        int matching = facade.countCharactersByAge(ageFilter.getMinAge(), ageFilter.getMaxAge());
+                        newFilter.add(ageFilter);
+                        activeFilters.put("Age", age + " (" + matching + " characters)");
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Invalid age range!");
+                    }
                 }
                 case 2 -> {
-                    System.out.print("Enter birthday: ");
+                    System.out.print("Enter birthday (YYYY, YYYY-MM-DD, FROM..TO, month e.g. March, or MM-DD): ");
                     String birthday = scanner.nextLine();
-                    newFilter.add(new BirthdayCharacterFilterStrategy(birthday));
-                    activeFilters.put("Birthday", String.join(", ", birthday));
+                    try {
+                        newFilter.add(BirthdayCharacterFilterStrategy.parse(birthday));
+                        activeFilters.put("Birthday", String.join(", ", birthday));
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Invalid birthday!");
+                    }
                 }
                 case 3 -> {
                     System.out.print("Enter species: ");
@@ -713,15 +908,50 @@ public class ZazManagementSystem {
                     activeFilters.put("Activity", String.join(", ", activity));
                 }
                 case 5 -> {
-                    System.out.print("Enter hashtag: ");
+                    System.out.print("Enter hashtags (a, b = all of them; a | b = any of them): ");
                     String hashtag = scanner.nextLine();
-                    newFilter.add(new HashtagCharacterFilterStrategy(hashtag));
-                    activeFilters.put("Hashtag", String.join(", ", hashtag));
+                    try {
+                        HashtagCharacterFilterStrategy tagFilter = hashtag.contains("|")
+                                ? HashtagCharacterFilterStrategy.anyOf(hashtag.replace('|', ','))
+                                : HashtagCharacterFilterStrategy.allOf(hashtag);
+                        int matching = facade.countCharactersWithTags(tagFilter.getTags(), tagFilter.isMatchAll());
+                        newFilter.add(tagFilter);
+                        activeFilters.put("Hashtag", hashtag + " (" + matching + " characters)");
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Invalid hashtags!");
+                    }
                 }
             }
         }
     }
 
+    private void showMostFavorited() {
+        List<Media> topMedia = facade.getMostFavoritedMedia(LEADERBOARD_LIMIT);
+        List<Character> topCharacters = facade.getMostFavoritedCharacters(LEADERBOARD_LIMIT);
+
+        System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ Most Favorited ▀▄▀▄▀▄▀▄▀▄▀▄");
+        System.out.println("\nMedia:");
+        if (topMedia.isEmpty()) {
+            System.out.println("No favorites yet.");
+        }
+        for (int i = 0; i < topMedia.size(); i++) {
+            Media media = topMedia.get(i);
+            System.out.println(i + 1 + ". " + media.getTitle() + " | " + media.getType() + " | ★ " + facade.getFavoriteCount(media.getId(), true));
+        }
+
+        System.out.println("\nCharacters:");
+        if (topCharacters.isEmpty()) {
+            System.out.println("No favorites yet.");
+        }
+        for (int i = 0; i < topCharacters.size(); i++) {
+            Character character = topCharacters.get(i);
+            System.out.println(i + 1 + ". " + character.getName() + " | ★ " + facade.getFavoriteCount(character.getId(), false));
+        }
+
+        System.out.print("\nPress Enter to continue...");
+        scanner.nextLine();
+    }
+
     private void search() {
         if (searchHistory.hasHistory()) {
             System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ Search History ▀▄▀▄▀▄▀▄▀▄▀▄");
@@ -731,9 +961,14 @@ public class ZazManagementSystem {
             }
         }
 
-        System.out.print("\nChoose from search history (1-5) or enter new search: ");
+        System.out.print("\nChoose from search history (1-5), enter new search, or end with * for suggestions: ");
         String input = scanner.nextLine();
 
+        if (input.endsWith("*")) {
+            showSuggestions(input.substring(0, input.length() - 1));
+            return;
+        }
+
         String searchQuery;
         try {
             int historyChoice = Integer.parseInt(input);
@@ -750,18 +985,39 @@ public class ZazManagementSystem {
         performSearch(searchQuery);
     }
 
-    private void performSearch(String query) {
-        String lowerQuery = query.toLowerCase();
+    private void showSuggestions(String prefix) {
+        List<Suggestion> suggestions = facade.suggest(prefix, SUGGESTION_LIMIT);
+        if (suggestions.isEmpty()) {
+            System.out.println("No suggestions.");
+            return;
+        }
 
-        List<Media> allMedia = facade.browseMedia(items -> items);
-        List<Media> foundMedia = allMedia.stream()
-                .filter(m -> m.getTitle().toLowerCase().contains(lowerQuery))
-                .collect(Collectors.toList());
+        System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ Suggestions ▀▄▀▄▀▄▀▄▀▄▀▄");
+        for (int i = 0; i < suggestions.size(); i++) {
+            System.out.println(i + 1 + ". " + suggestions.get(i).display());
+        }
 
-        List<Character> allCharacters = facade.browseCharacters(items -> items);
-        List<Character> foundCharacters = allCharacters.stream()
-                .filter(c -> c.getName().toLowerCase().contains(lowerQuery))
-                .collect(Collectors.toList());
+        System.out.print("\nChoose suggestion for details (0 to go back): ");
+        int choice = scanner.nextInt();
+        scanner.nextLine();
+
+        if (choice > 0 && choice <= suggestions.size()) {
+            Suggestion selected = suggestions.get(choice - 1);
+            searchHistory.addSearch(selected.getText());
+            if (selected.isMedia()) {
+                showMediaDetails(facade.getMediaDetails(selected.getId()));
+            } else {
+                Character character = facade.viewCharacterDetails(selected.getId());
+                if (character != null) {
+                    showCharacterDetails(character);
+                }
+            }
+        }
+    }
+
+    private void performSearch(String query) {
+        List<Media> foundMedia = facade.searchMedia(query, SEARCH_LIMIT);
+        List<Character> foundCharacters = facade.searchCharacters(query, SEARCH_LIMIT);
 
         System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ Search Results ▀▄▀▄▀▄▀▄▀▄▀▄");
         boolean found = false;
@@ -797,8 +1053,7 @@ public class ZazManagementSystem {
             int mediaChoice = scanner.nextInt();
             scanner.nextLine();
             if (mediaChoice > 0 && mediaChoice <= foundMedia.size()) {
-                Media selectedMedia = facade.viewMediaDetails(foundMedia.get(mediaChoice - 1).getId());
-                showMediaDetails(selectedMedia);
+                showMediaDetails(facade.getMediaDetails(foundMedia.get(mediaChoice - 1).getId()));
             }
         } else if (choice == 2 && !foundCharacters.isEmpty()) {
             System.out.print("Choose character number: ");
@@ -818,40 +1073,82 @@ public class ZazManagementSystem {
         scanner.nextLine();
 
         if (choice == 1) {
-            List<Media> mediaList = facade.browseMedia(items -> items);
-            if (mediaList.isEmpty()) return;
-
-            for (int i = 0; i < mediaList.size(); i++) {
-                System.out.println(i + 1 + ". " + mediaList.get(i).getTitle());
+            int[] ids;
+            try (Stream<MediaSummary> mediaStream = facade.streamMediaSummaries()) {
+                ids = printNumbered(mediaStream, MediaSummary::getId, MediaSummary::getTitle);
+            } catch (IllegalStateException e) {
+                System.out.println("Could not load the media list: " + e.getMessage());
+                return;
             }
+            if (ids.length == 0) return;
+
             System.out.print("Choose media to delete: ");
             int del = scanner.nextInt();
             scanner.nextLine();
 
-            if (del > 0 && del <= mediaList.size()) {
-                facade.deleteMedia(mediaList.get(del - 1).getId());
+            if (del > 0 && del <= ids.length) {
+                facade.deleteMedia(ids[del - 1]);
                 System.out.println("Media deleted successfully!");
             }
         } else if (choice == 2) {
-            List<Character> characters = facade.browseCharacters(items -> items);
-            if (characters.isEmpty()) return;
-
-            for (int i = 0; i < characters.size(); i++) {
-                System.out.println(i + 1 + ". " + characters.get(i).getName());
+            int[] ids;
+            try (Stream<CharacterSummary> characterStream = facade.streamCharacterSummaries()) {
+                ids = printNumbered(characterStream, CharacterSummary::getId, CharacterSummary::getName);
+            } catch (IllegalStateException e) {
+                System.out.println("Could not load the character list: " + e.getMessage());
+                return;
             }
+            if (ids.length == 0) return;
+
             System.out.print("Choose character to delete: ");
             int del = scanner.nextInt();
             scanner.nextLine();
 
-            if (del > 0 && del <= characters.size()) {
-                facade.deleteCharacter(characters.get(del - 1).getId());
+            if (del > 0 && del <= ids.length) {
+                facade.deleteCharacter(ids[del - 1]);
                 System.out.println("Character deleted successfully!");
             }
         }
     }
 
+    // Prints rows as they stream in and keeps only their ids for the selection that follows.
+    private <T> int[] printNumbered(Stream<T> items, ToIntFunction<T> id, Function<T, String> label) {
+        IntStream.Builder ids = IntStream.builder();
+        int[] count = {0};
+        items.forEach(item -> {
+            System.out.println(++count[0] + ". " + label.apply(item));
+            ids.add(id.applyAsInt(item));
+        });
+        return ids.build().toArray();
+    }
+
+    private void importCatalog() {
+        System.out.print("Path to .jsonl or .csv file: ");
+        String path = scanner.nextLine().trim();
+        System.out.print("Rows per transaction (" + CatalogImporter.DEFAULT_CHUNK_SIZE + "): ");
+        String chunkInput = scanner.nextLine().trim();
+
+        try {
+            int chunkSize = chunkInput.isEmpty() ? CatalogImporter.DEFAULT_CHUNK_SIZE : Integer.parseInt(chunkInput);
+            ImportResult result = facade.importCatalog(path, chunkSize, currentUser.getId());
+            System.out.println(result);
+            result.getErrors().forEach(error -> System.out.println("  " + error));
+        } catch (InvalidPathException e) {
+            System.out.println("Invalid path!");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid chunk size!");
+        } catch (IOException e) {
+            System.out.println("Could not read file: " + e.getMessage());
+        }
+    }
+
     private void manageUsers() {
-        List<User> allUsers = facade.getAllUsers();
+        manageUsers(PageRequest.first(PAGE_SIZE));
+    }
+
+    private void manageUsers(PageRequest request) {
+        Page<User> page = facade.getUsersPage(request);
+        List<User> allUsers = page.getItems();
 
         if (allUsers.isEmpty()) {
             System.out.println("No users found.");
@@ -872,6 +1169,7 @@ public class ZazManagementSystem {
         System.out.println("\n1. Delete user");
         System.out.println("2. View user profile");
         System.out.println("3. Go back");
+        printPageOptions(page);
         System.out.print("Choose option: ");
         int choice = scanner.nextInt();
         scanner.nextLine();
@@ -880,6 +1178,8 @@ public class ZazManagementSystem {
             case 1 -> deleteUser(allUsers);
             case 2 -> viewUserProfile(allUsers);
             case 3 -> { return; }
+            case 4 -> manageUsers(page.hasNext() ? page.nextRequest() : request);
+            case 5 -> manageUsers(page.hasPrevious() ? page.previousRequest() : request);
             default -> {
                 System.out.println("Invalid option!");
                 manageUsers();
@@ -955,22 +1255,19 @@ public class ZazManagementSystem {
     private void viewAuthorProfile(int authorId, String authorName) {
         System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ " + authorName + " ▀▄▀▄▀▄▀▄▀▄▀▄");
 
-        List<Media> authorMedia = facade.getUserMedia(authorId);
-        System.out.println("\nMedia created: " + authorMedia.size());
-
-        List<Character> authorCharacters = facade.getUserCharacters(authorId);
-        System.out.println("Characters created: " + authorCharacters.size());
+        ProfileStats stats = facade.getProfileStats(authorId);
+        if (stats != null) {
+            System.out.println("\nMedia created: " + stats.getMediaCount());
+            System.out.println("Characters created: " + stats.getCharacterCount());
 
-        try {
-            boolean isAuthorAdmin = facade.isUserAdmin(authorId);
-
-            if (!isAuthorAdmin) {
-                int favMediaCount = facade.countUserFavoriteMedia(authorId);
-                int favCharCount = facade.countUserFavoriteCharacters(authorId);
-                System.out.println("Favorites: " + (favMediaCount + favCharCount) + " (" + favMediaCount + " media, " + favCharCount + " characters)");
+            if (!stats.isAdmin()) {
+                System.out.println("Favorites: " + stats.getFavoriteCount() + " (" + stats.getFavoriteMediaCount() + " media, " + stats.getFavoriteCharacterCount() + " characters)");
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+        }
+        if (authorId != currentUser.getId() && !currentUser.isAdmin()) {
+            int commonMedia = facade.countFavoritesInCommon(currentUser.getId(), authorId, true);
+            int commonCharacters = facade.countFavoritesInCommon(currentUser.getId(), authorId, false);
+            System.out.println("In common with you: " + commonMedia + " media, " + commonCharacters + " characters");
         }
 
         System.out.println("\n1. View author's media");
@@ -982,8 +1279,8 @@ public class ZazManagementSystem {
         scanner.nextLine();
 
         switch (choice) {
-            case 1 -> viewAuthorMedia(authorId, authorName, authorMedia);
-            case 2 -> viewAuthorCharacters(authorId, authorName, authorCharacters);
+            case 1 -> viewAuthorMedia(authorId, authorName, facade.getUserMedia(authorId));
+            case 2 -> viewAuthorCharacters(authorId, authorName, facade.getUserCharacters(authorId));
             case 3 -> viewAuthorFavorites(authorId, authorName);
         }
     }
@@ -1007,11 +1304,15 @@ public class ZazManagementSystem {
         scanner.nextLine();
 
         if (choice > 0 && choice <= mediaList.size()) {
-            Media selected = facade.viewMediaDetails(mediaList.get(choice - 1).getId());
+            MediaDetails details = facade.getMediaDetails(mediaList.get(choice - 1).getId());
+            if (details == null) {
+                viewAuthorProfile(authorId, authorName);
+                return;
+            }
+            Media selected = details.getMedia();
 
             System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ Media Details ▀▄▀▄▀▄▀▄▀▄▀▄");
-            System.out.println(selected.getDetails());
-            System.out.println("Author: " + authorName);
+            System.out.println(details.getDetails());
 
             System.out.println("\n1. Add to favorites");
             System.out.println("2. Show all characters");
@@ -1022,7 +1323,7 @@ public class ZazManagementSystem {
 
             switch (detailChoice) {
                 case 1 -> {
-                    facade.addToFavorites(currentUser.getId(), selected.getId(), true);
+                    addFavorite(selected.getId(), true);
                     viewAuthorMedia(authorId, authorName, mediaList);
                 }
                 case 2 -> {
@@ -1073,7 +1374,7 @@ public class ZazManagementSystem {
             scanner.nextLine();
 
             if (detailChoice == 1) {
-                facade.addToFavorites(currentUser.getId(), selected.getId(), false);
+                addFavorite(selected.getId(), false);
             }
 
             viewAuthorProfile(authorId, authorName);
@@ -1122,13 +1423,15 @@ public class ZazManagementSystem {
             try {
                 int index = Integer.parseInt(choiceStr.substring(1)) - 1;
                 if (index >= 0 && index < favoriteMedia.size()) {
-                    Media selected = facade.viewMediaDetails(favoriteMedia.get(index).getId());
+                    MediaDetails details = facade.getMediaDetails(favoriteMedia.get(index).getId());
+                    if (details == null) {
+                        viewAuthorFavorites(authorId, authorName);
+                        return;
+                    }
+                    Media selected = details.getMedia();
 
                     System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ Media Details ▀▄▀▄▀▄▀▄▀▄▀▄");
-                    System.out.println(selected.getDetails());
-
-                    String mediaAuthorName = facade.getMediaAuthorName(selected.getId());
-                    System.out.println("Author: " + mediaAuthorName);
+                    System.out.println(details.getDetails());
 
                     System.out.println("\n1. Add to favorites");
                     System.out.println("2. Show all characters");
@@ -1139,7 +1442,7 @@ public class ZazManagementSystem {
 
                     switch (detailChoice) {
                         case 1 -> {
-                            facade.addToFavorites(currentUser.getId(), selected.getId(), true);
+                            addFavorite(selected.getId(), true);
                             viewAuthorFavorites(authorId, authorName);
                         }
                         case 2 -> {
@@ -1161,14 +1464,12 @@ public class ZazManagementSystem {
                     System.out.println("\n▀▄▀▄▀▄▀▄▀▄▀▄ Character Details ▀▄▀▄▀▄▀▄▀▄▀▄");
                     System.out.println(selected.getDetails());
 
-                    Media media = facade.viewMediaDetails(selected.getMediaId());
+                    MediaDetails media = facade.getMediaDetails(selected.getMediaId());
                     if (media != null) {
                         System.out.println("From Media: " + media.getTitle());
+                        System.out.println("Author: " + media.getAuthorName());
                     }
 
-                    String charAuthorName = facade.getMediaAuthorName(selected.getMediaId());
-                    System.out.println("Author: " + charAuthorName);
-
                     System.out.println("\n1. Add to favorites");
                     System.out.println("2. Go back to author's profile");
                     System.out.print("Choose option: ");
@@ -1176,7 +1477,7 @@ public class ZazManagementSystem {
                     scanner.nextLine();
 
                     if (detailChoice == 1) {
-                        facade.addToFavorites(currentUser.getId(), selected.getId(), false);
+                        addFavorite(selected.getId(), false);
                     }
 
                     viewAuthorProfile(authorId, authorName);
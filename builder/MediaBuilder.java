@@ -0,0 +1,35 @@
+package builder;
+
+import component.Media;
+import component.MediaGenre;
+import component.MediaType;
+
+public class MediaBuilder {
+    private String title;
+    private String description;
+    private String releaseDate;
+    private MediaType type = MediaType.OTHER;
+    private MediaGenre genre = MediaGenre.OTHER;
+    private String hashtags;
+    private int userId;
+
+    public MediaBuilder setTitle(String title) { this.title = title; return this; }
+    public MediaBuilder setDescription(String description) { this.description = description; return this; }
+    public MediaBuilder setReleaseDate(String releaseDate) { this.releaseDate = releaseDate; return this; }
+    public MediaBuilder setType(MediaType type) { this.type = type; return this; }
+    public MediaBuilder setGenre(MediaGenre genre) { this.genre = genre; return this; }
+    public MediaBuilder setHashtags(String hashtags) { this.hashtags = hashtags; return this; }
+    public MediaBuilder setUserId(int userId) { this.userId = userId; return this; }
+
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public String getReleaseDate() { return releaseDate; }
+    public MediaType getType() { return type; }
+    public MediaGenre getGenre() { return genre; }
+    public String getHashtags() { return hashtags; }
+    public int getUserId() { return userId; }
+
+    public Media build(int id) {
+        return new Media(id, title, description, releaseDate, type, genre, hashtags);
+    }
+}
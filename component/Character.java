@@ -1,6 +1,7 @@
 package component;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class Character {
@@ -13,8 +14,11 @@ public class Character {
     private String activity;
     private String description;
     private String hashtags;
+    private List<String> tags;
     private Map<String, String> additionalFields;
     private int mediaId;
+    private Integer birthdayEpochDay;
+    private boolean birthdayParsed;
 
     public Character(int id, String name, int age, String birthday, String gender,
                      String species, String activity, String description, String hashtags,
@@ -63,4 +67,28 @@ public class Character {
     public Map<String, String> getAdditionalFields() {
         return additionalFields;
     }
+
+    public List<String> getTags() {
+        if (tags == null) {
+            tags = Hashtags.parse(hashtags);
+        }
+        return tags;
+    }
+
+    public Integer getBirthdayEpochDay() {
+        if (!birthdayParsed) {
+            birthdayEpochDay = DateFields.toEpochDay(birthday);
+            birthdayParsed = true;
+        }
+        return birthdayEpochDay;
+    }
+
+    public Integer getBirthdayMonthDay() {
+        Integer epochDay = getBirthdayEpochDay();
+        if (epochDay == null) {
+            return null;
+        }
+        java.time.LocalDate date = java.time.LocalDate.ofEpochDay(epochDay);
+        return DateFields.monthDay(date.getMonthValue(), date.getDayOfMonth());
+    }
 }
@@ -0,0 +1,20 @@
+package component;
+
+public class CharacterSummary {
+    private int id;
+    private String name;
+    private int mediaId;
+    private String mediaTitle;
+
+    public CharacterSummary(int id, String name, int mediaId, String mediaTitle) {
+        this.id = id;
+        this.name = name;
+        this.mediaId = mediaId;
+        this.mediaTitle = mediaTitle;
+    }
+
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public int getMediaId() { return mediaId; }
+    public String getMediaTitle() { return mediaTitle; }
+}
@@ -0,0 +1,34 @@
+package component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+public final class DateFields {
+    private DateFields() {
+    }
+
+    public static LocalDate parse(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(text.trim());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public static Integer toEpochDay(String text) {
+        LocalDate date = parse(text);
+        return date == null ? null : (int) date.toEpochDay();
+    }
+
+    public static Integer toMonthDay(String text) {
+        LocalDate date = parse(text);
+        return date == null ? null : monthDay(date.getMonthValue(), date.getDayOfMonth());
+    }
+
+    public static int monthDay(int month, int day) {
+        return month * 100 + day;
+    }
+}
@@ -0,0 +1,36 @@
+package component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+public final class Hashtags {
+    private Hashtags() {
+    }
+
+    // Splits "#Cat, dog  #fluffy" into ["cat", "dog", "fluffy"]: separators are commas and
+    // whitespace, leading '#' is dropped and duplicates are removed.
+    public static List<String> parse(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return List.of();
+        }
+        Set<String> tags = new LinkedHashSet<>();
+        for (String part : raw.split("[,\\s]+")) {
+            String tag = normalize(part);
+            if (!tag.isEmpty()) {
+                tags.add(tag);
+            }
+        }
+        return new ArrayList<>(tags);
+    }
+
+    public static String normalize(String tag) {
+        int start = 0;
+        while (start < tag.length() && tag.charAt(start) == '#') {
+            start++;
+        }
+        return tag.substring(start).trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,20 +1,25 @@
 package component;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class Media {
     private int id;
     private String title;
     private String description;
     private String releaseDate;
-    private String type;
-    private String genre;
+    private MediaType type;
+    private MediaGenre genre;
     private String hashtags;
+    private List<String> tags;
     private List<Character> characters;
+    private Supplier<List<Character>> characterLoader;
+    private int characterCount = -1;
+    private Integer releaseEpochDay;
+    private boolean releaseDateParsed;
 
     public Media(int id, String title, String description, String releaseDate,
-                 String type, String genre, String hashtags) {
+                 MediaType type, MediaGenre genre, String hashtags) {
         this.id = id;
         this.title = title;
         this.description = description;
@@ -22,15 +27,21 @@ public class Media {
         this.type = type;
         this.genre = genre;
         this.hashtags = hashtags;
-        this.characters = new ArrayList<>();
     }
 
-    public void addCharacter(Character character) {
-        characters.add(character);
+    // Characters are fetched on first access; until then the count comes from the
+    // aggregate the repository selected alongside the row.
+    public void setCharacterLoader(Supplier<List<Character>> characterLoader) {
+        this.characterLoader = characterLoader;
+        this.characters = null;
+    }
+
+    public void setCharacterCount(int characterCount) {
+        this.characterCount = characterCount;
     }
 
     public void display() {
-        System.out.printf("%s | %s | Characters: %d\n", title, type, characters.size());
+        System.out.printf("%s | %s | Characters: %d\n", title, type, getCharacterCount());
     }
 
     public String getDetails() {
@@ -42,7 +53,7 @@ public class Media {
         sb.append("Genre: ").append(genre).append("\n");
         sb.append("Hashtags: ").append(hashtags).append("\n");
         sb.append("Characters:\n");
-        for (Character ch : characters) {
+        for (Character ch : getCharacters()) {
             sb.append("  - ").append(ch.getName()).append("\n");
         }
         return sb.toString();
@@ -52,8 +63,37 @@ public class Media {
     public String getTitle() { return title; }
     public String getDescription() { return description; }
     public String getReleaseDate() { return releaseDate; }
-    public String getType() { return type; }
-    public String getGenre() { return genre; }
+    public MediaType getType() { return type; }
+    public MediaGenre getGenre() { return genre; }
     public String getHashtags() { return hashtags; }
-    public List<Character> getCharacters() { return characters; }
+
+    public List<Character> getCharacters() {
+        if (characters == null) {
+            characters = characterLoader != null ? List.copyOf(characterLoader.get()) : List.of();
+            characterCount = characters.size();
+        }
+        return characters;
+    }
+
+    public int getCharacterCount() {
+        if (characterCount < 0) {
+            return getCharacters().size();
+        }
+        return characterCount;
+    }
+
+    public List<String> getTags() {
+        if (tags == null) {
+            tags = Hashtags.parse(hashtags);
+        }
+        return tags;
+    }
+
+    public Integer getReleaseEpochDay() {
+        if (!releaseDateParsed) {
+            releaseEpochDay = DateFields.toEpochDay(releaseDate);
+            releaseDateParsed = true;
+        }
+        return releaseEpochDay;
+    }
 }
@@ -0,0 +1,29 @@
+package component;
+
+import java.util.List;
+
+public class MediaDetails {
+    private Media media;
+    private int authorId;
+    private String authorName;
+    private int favoriteCount;
+
+    public MediaDetails(Media media, int authorId, String authorName, int favoriteCount) {
+        this.media = media;
+        this.authorId = authorId;
+        this.authorName = authorName;
+        this.favoriteCount = favoriteCount;
+    }
+
+    public String getDetails() {
+        return media.getDetails() + "Author: " + authorName + "\n" + "Favorited by: " + favoriteCount + "\n";
+    }
+
+    public Media getMedia() { return media; }
+    public int getId() { return media.getId(); }
+    public String getTitle() { return media.getTitle(); }
+    public List<Character> getCharacters() { return media.getCharacters(); }
+    public int getAuthorId() { return authorId; }
+    public String getAuthorName() { return authorName; }
+    public int getFavoriteCount() { return favoriteCount; }
+}
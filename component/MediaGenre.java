@@ -1,6 +1,40 @@
 package component;
 
-public class MediaGenre {
-    public static final String[] GENRES = {"Adventure", "Romance", "Fiction", "Crime", "Drama",
-            "Fantasy", "Monsters", "Biography", "Horror", "Thriller"};
+public enum MediaGenre {
+    ADVENTURE("Adventure"), ROMANCE("Romance"), FICTION("Fiction"), CRIME("Crime"), DRAMA("Drama"),
+    FANTASY("Fantasy"), MONSTERS("Monsters"), BIOGRAPHY("Biography"), HORROR("Horror"), THRILLER("Thriller"),
+    OTHER("Other");
+
+    private static final MediaGenre[] SELECTABLE = {ADVENTURE, ROMANCE, FICTION, CRIME, DRAMA,
+            FANTASY, MONSTERS, BIOGRAPHY, HORROR, THRILLER};
+
+    private final String label;
+
+    MediaGenre(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+
+    public static MediaGenre[] selectable() {
+        return SELECTABLE.clone();
+    }
+
+    public static MediaGenre fromLabel(String label) {
+        if (label != null) {
+            for (MediaGenre genre : values()) {
+                if (genre.label.equalsIgnoreCase(label.trim())) {
+                    return genre;
+                }
+            }
+        }
+        return OTHER;
+    }
 }
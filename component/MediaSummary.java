@@ -0,0 +1,28 @@
+package component;
+
+public class MediaSummary {
+    private int id;
+    private String title;
+    private MediaType type;
+    private int characterCount;
+
+    public MediaSummary(int id, String title, MediaType type, int characterCount) {
+        this.id = id;
+        this.title = title;
+        this.type = type;
+        this.characterCount = characterCount;
+    }
+
+    public static MediaSummary of(Media media) {
+        return new MediaSummary(media.getId(), media.getTitle(), media.getType(), media.getCharacterCount());
+    }
+
+    public void display() {
+        System.out.printf("%s | %s | Characters: %d\n", title, type, characterCount);
+    }
+
+    public int getId() { return id; }
+    public String getTitle() { return title; }
+    public MediaType getType() { return type; }
+    public int getCharacterCount() { return characterCount; }
+}
@@ -1,5 +1,26 @@
 package component;
 
-public class MediaType {
-    public static final String[] TYPES = {"CARTOON", "GAME", "ANIME", "SERIES", "MOVIE", "COMICS"};
+public enum MediaType {
+    CARTOON, GAME, ANIME, SERIES, MOVIE, COMICS, OTHER;
+
+    private static final MediaType[] SELECTABLE = {CARTOON, GAME, ANIME, SERIES, MOVIE, COMICS};
+
+    public String getLabel() {
+        return name();
+    }
+
+    public static MediaType[] selectable() {
+        return SELECTABLE.clone();
+    }
+
+    public static MediaType fromLabel(String label) {
+        if (label != null) {
+            for (MediaType type : values()) {
+                if (type.getLabel().equalsIgnoreCase(label.trim())) {
+                    return type;
+                }
+            }
+        }
+        return OTHER;
+    }
 }
@@ -0,0 +1,28 @@
+package component;
+
+public class ProfileStats {
+    private int userId;
+    private boolean isAdmin;
+    private int mediaCount;
+    private int characterCount;
+    private int favoriteMediaCount;
+    private int favoriteCharacterCount;
+
+    public ProfileStats(int userId, boolean isAdmin, int mediaCount, int characterCount,
+                        int favoriteMediaCount, int favoriteCharacterCount) {
+        this.userId = userId;
+        this.isAdmin = isAdmin;
+        this.mediaCount = mediaCount;
+        this.characterCount = characterCount;
+        this.favoriteMediaCount = favoriteMediaCount;
+        this.favoriteCharacterCount = favoriteCharacterCount;
+    }
+
+    public int getUserId() { return userId; }
+    public boolean isAdmin() { return isAdmin; }
+    public int getMediaCount() { return mediaCount; }
+    public int getCharacterCount() { return characterCount; }
+    public int getFavoriteMediaCount() { return favoriteMediaCount; }
+    public int getFavoriteCharacterCount() { return favoriteCharacterCount; }
+    public int getFavoriteCount() { return favoriteMediaCount + favoriteCharacterCount; }
+}
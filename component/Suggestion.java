@@ -0,0 +1,21 @@
+package component;
+
+public class Suggestion {
+    private int id;
+    private String text;
+    private boolean isMedia;
+
+    public Suggestion(int id, String text, boolean isMedia) {
+        this.id = id;
+        this.text = text;
+        this.isMedia = isMedia;
+    }
+
+    public String display() {
+        return (isMedia ? "[Media] " : "[Character] ") + text;
+    }
+
+    public int getId() { return id; }
+    public String getText() { return text; }
+    public boolean isMedia() { return isMedia; }
+}
@@ -5,4 +5,15 @@ import java.sql.SQLException;
 
 public interface DatabaseConnectionProvider {
     Connection getConnection() throws SQLException;
+
+    default Connection getReadConnection() throws SQLException {
+        return getConnection();
+    }
+
+    default Connection getWriteConnection() throws SQLException {
+        return getConnection();
+    }
+
+    default void close() {
+    }
 }
@@ -1,9 +1,14 @@
 package db;
 
+import component.DateFields;
+import component.Hashtags;
+
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
 
 public class DatabaseInitializer {
     private final Connection connection;
@@ -13,6 +18,10 @@ public class DatabaseInitializer {
     }
 
     public void initialize() throws SQLException {
+        new MigrationRunner(connection, migrations()).migrate();
+    }
+
+    static List<Migration> migrations() {
         String createUsersTable = """
             CREATE TABLE IF NOT EXISTS users (
                 id INTEGER PRIMARY KEY AUTOINCREMENT,
@@ -66,18 +75,300 @@ public class DatabaseInitializer {
             )
         """;
 
+        String insertAdmin = """
+            INSERT INTO users (username, email, password, is_admin)
+            SELECT 'admin', 'admin@system.com', 'admin', 1
+            WHERE NOT EXISTS (SELECT 1 FROM users WHERE username = 'admin')
+        """;
+
+        String removeDuplicateFavoriteMedia = """
+            DELETE FROM favorites
+            WHERE media_id IS NOT NULL AND id NOT IN (
+                SELECT MIN(id) FROM favorites WHERE media_id IS NOT NULL GROUP BY user_id, media_id
+            )
+        """;
+
+        String removeDuplicateFavoriteCharacters = """
+            DELETE FROM favorites
+            WHERE character_id IS NOT NULL AND id NOT IN (
+                SELECT MIN(id) FROM favorites WHERE character_id IS NOT NULL GROUP BY user_id, character_id
+            )
+        """;
+
+        String createMediaSearchTable = """
+            CREATE VIRTUAL TABLE IF NOT EXISTS media_fts USING fts5(
+                title, description, hashtags,
+                content = 'media', content_rowid = 'id',
+                tokenize = 'unicode61 remove_diacritics 2', prefix = '2 3'
+            )
+        """;
+
+        String createCharacterSearchTable = """
+            CREATE VIRTUAL TABLE IF NOT EXISTS characters_fts USING fts5(
+                name, description, hashtags,
+                content = 'characters', content_rowid = 'id',
+                tokenize = 'unicode61 remove_diacritics 2', prefix = '2 3'
+            )
+        """;
+
+        String mediaSearchInsertTrigger = """
+            CREATE TRIGGER IF NOT EXISTS media_fts_insert AFTER INSERT ON media BEGIN
+                INSERT INTO media_fts(rowid, title, description, hashtags)
+                VALUES (new.id, new.title, new.description, new.hashtags);
+            END
+        """;
+
+        String mediaSearchDeleteTrigger = """
+            CREATE TRIGGER IF NOT EXISTS media_fts_delete AFTER DELETE ON media BEGIN
+                INSERT INTO media_fts(media_fts, rowid, title, description, hashtags)
+                VALUES ('delete', old.id, old.title, old.description, old.hashtags);
+            END
+        """;
+
+        String mediaSearchUpdateTrigger = """
+            CREATE TRIGGER IF NOT EXISTS media_fts_update AFTER UPDATE ON media BEGIN
+                INSERT INTO media_fts(media_fts, rowid, title, description, hashtags)
+                VALUES ('delete', old.id, old.title, old.description, old.hashtags);
+                INSERT INTO media_fts(rowid, title, description, hashtags)
+                VALUES (new.id, new.title, new.description, new.hashtags);
+            END
+        """;
+
+        String characterSearchInsertTrigger = """
+            CREATE TRIGGER IF NOT EXISTS characters_fts_insert AFTER INSERT ON characters BEGIN
+                INSERT INTO characters_fts(rowid, name, description, hashtags)
+                VALUES (new.id, new.name, new.description, new.hashtags);
+            END
+        """;
+
+        String characterSearchDeleteTrigger = """
+            CREATE TRIGGER IF NOT EXISTS characters_fts_delete AFTER DELETE ON characters BEGIN
+                INSERT INTO characters_fts(characters_fts, rowid, name, description, hashtags)
+                VALUES ('delete', old.id, old.name, old.description, old.hashtags);
+            END
+        """;
+
+        String characterSearchUpdateTrigger = """
+            CREATE TRIGGER IF NOT EXISTS characters_fts_update AFTER UPDATE ON characters BEGIN
+                INSERT INTO characters_fts(characters_fts, rowid, name, description, hashtags)
+                VALUES ('delete', old.id, old.name, old.description, old.hashtags);
+                INSERT INTO characters_fts(rowid, name, description, hashtags)
+                VALUES (new.id, new.name, new.description, new.hashtags);
+            END
+        """;
+
+        String createMediaFavoriteCounts = """
+            CREATE TABLE IF NOT EXISTS media_favorite_counts (
+                media_id INTEGER PRIMARY KEY,
+                favorite_count INTEGER NOT NULL DEFAULT 0
+            ) WITHOUT ROWID
+        """;
+
+        String createCharacterFavoriteCounts = """
+            CREATE TABLE IF NOT EXISTS character_favorite_counts (
+                character_id INTEGER PRIMARY KEY,
+                favorite_count INTEGER NOT NULL DEFAULT 0
+            ) WITHOUT ROWID
+        """;
+
+        String createUserFavoriteCounts = """
+            CREATE TABLE IF NOT EXISTS user_favorite_counts (
+                user_id INTEGER PRIMARY KEY,
+                media_count INTEGER NOT NULL DEFAULT 0,
+                character_count INTEGER NOT NULL DEFAULT 0
+            ) WITHOUT ROWID
+        """;
+
+        String favoriteCountInsertTrigger = """
+            CREATE TRIGGER IF NOT EXISTS favorites_count_insert AFTER INSERT ON favorites BEGIN
+                INSERT INTO media_favorite_counts (media_id, favorite_count)
+                SELECT new.media_id, 1 WHERE new.media_id IS NOT NULL
+                ON CONFLICT(media_id) DO UPDATE SET favorite_count = favorite_count + 1;
+                INSERT INTO character_favorite_counts (character_id, favorite_count)
+                SELECT new.character_id, 1 WHERE new.character_id IS NOT NULL
+                ON CONFLICT(character_id) DO UPDATE SET favorite_count = favorite_count + 1;
+                INSERT INTO user_favorite_counts (user_id, media_count, character_count)
+                VALUES (new.user_id, new.media_id IS NOT NULL, new.character_id IS NOT NULL)
+                ON CONFLICT(user_id) DO UPDATE SET
+                    media_count = media_count + excluded.media_count,
+                    character_count = character_count + excluded.character_count;
+            END
+        """;
+
+        String favoriteCountDeleteTrigger = """
+            CREATE TRIGGER IF NOT EXISTS favorites_count_delete AFTER DELETE ON favorites BEGIN
+                UPDATE media_favorite_counts SET favorite_count = favorite_count - 1 WHERE media_id = old.media_id;
+                UPDATE character_favorite_counts SET favorite_count = favorite_count - 1 WHERE character_id = old.character_id;
+                UPDATE user_favorite_counts SET
+                    media_count = media_count - (old.media_id IS NOT NULL),
+                    character_count = character_count - (old.character_id IS NOT NULL)
+                WHERE user_id = old.user_id;
+            END
+        """;
+
+        return List.of(
+                Migration.of(1, "Create base tables",
+                        createUsersTable,
+                        createMediaTable,
+                        createCharactersTable,
+                        createFavoritesTable,
+                        insertAdmin),
+                Migration.of(2, "Add secondary indexes",
+                        "CREATE INDEX IF NOT EXISTS idx_characters_media_id ON characters(media_id)",
+                        "CREATE INDEX IF NOT EXISTS idx_characters_name ON characters(name)",
+                        "CREATE INDEX IF NOT EXISTS idx_media_user_id ON media(user_id)",
+                        "CREATE INDEX IF NOT EXISTS idx_media_title ON media(title)",
+                        "CREATE INDEX IF NOT EXISTS idx_favorites_media_id ON favorites(media_id)",
+                        "CREATE INDEX IF NOT EXISTS idx_favorites_character_id ON favorites(character_id)"),
+                Migration.of(3, "Make favorites unique per user and item",
+                        removeDuplicateFavoriteMedia,
+                        removeDuplicateFavoriteCharacters,
+                        "CREATE UNIQUE INDEX IF NOT EXISTS ux_favorites_user_media ON favorites(user_id, media_id)",
+                        "CREATE UNIQUE INDEX IF NOT EXISTS ux_favorites_user_character ON favorites(user_id, character_id)"),
+                Migration.of(4, "Add full-text search tables",
+                        createMediaSearchTable,
+                        createCharacterSearchTable,
+                        mediaSearchInsertTrigger,
+                        mediaSearchDeleteTrigger,
+                        mediaSearchUpdateTrigger,
+                        characterSearchInsertTrigger,
+                        characterSearchDeleteTrigger,
+                        characterSearchUpdateTrigger,
+                        "INSERT INTO media_fts(media_fts) VALUES ('rebuild')",
+                        "INSERT INTO characters_fts(characters_fts) VALUES ('rebuild')"),
+                Migration.of(5, "Add character age index",
+                        "CREATE INDEX IF NOT EXISTS idx_characters_age ON characters(age)"),
+                Migration.of(6, "Add parsed date columns", DatabaseInitializer::addDateColumns),
+                Migration.of(7, "Add normalized hashtag tables", DatabaseInitializer::addTagTables),
+                Migration.of(8, "Add favorite counters",
+                        createMediaFavoriteCounts,
+                        createCharacterFavoriteCounts,
+                        createUserFavoriteCounts,
+                        "CREATE INDEX IF NOT EXISTS idx_media_favorite_counts_count ON media_favorite_counts(favorite_count)",
+                        "CREATE INDEX IF NOT EXISTS idx_character_favorite_counts_count ON character_favorite_counts(favorite_count)",
+                        favoriteCountInsertTrigger,
+                        favoriteCountDeleteTrigger,
+                        "CREATE TRIGGER IF NOT EXISTS media_favorite_counts_delete AFTER DELETE ON media BEGIN DELETE FROM media_favorite_counts WHERE media_id = old.id; END",
+                        "CREATE TRIGGER IF NOT EXISTS character_favorite_counts_delete AFTER DELETE ON characters BEGIN DELETE FROM character_favorite_counts WHERE character_id = old.id; END",
+                        "CREATE TRIGGER IF NOT EXISTS user_favorite_counts_delete AFTER DELETE ON users BEGIN DELETE FROM user_favorite_counts WHERE user_id = old.id; END",
+                        "INSERT INTO media_favorite_counts (media_id, favorite_count) SELECT media_id, COUNT(*) FROM favorites WHERE media_id IN (SELECT id FROM media) GROUP BY media_id",
+                        "INSERT INTO character_favorite_counts (character_id, favorite_count) SELECT character_id, COUNT(*) FROM favorites WHERE character_id IN (SELECT id FROM characters) GROUP BY character_id",
+                        "INSERT INTO user_favorite_counts (user_id, media_count, character_count) SELECT user_id, COUNT(media_id), COUNT(character_id) FROM favorites GROUP BY user_id"),
+                Migration.of(9, "Delete favorites with their media, characters and users",
+                        "CREATE TRIGGER IF NOT EXISTS media_favorites_delete AFTER DELETE ON media BEGIN DELETE FROM favorites WHERE media_id = old.id; END",
+                        "CREATE TRIGGER IF NOT EXISTS character_favorites_delete AFTER DELETE ON characters BEGIN DELETE FROM favorites WHERE character_id = old.id; END",
+                        "CREATE TRIGGER IF NOT EXISTS user_favorites_delete AFTER DELETE ON users BEGIN DELETE FROM favorites WHERE user_id = old.id; END",
+                        "DELETE FROM favorites WHERE media_id IS NOT NULL AND media_id NOT IN (SELECT id FROM media)",
+                        "DELETE FROM favorites WHERE character_id IS NOT NULL AND character_id NOT IN (SELECT id FROM characters)",
+                        "DELETE FROM favorites WHERE user_id NOT IN (SELECT id FROM users)",
+                        "DELETE FROM media_favorite_counts WHERE media_id NOT IN (SELECT id FROM media)",
+                        "DELETE FROM character_favorite_counts WHERE character_id NOT IN (SELECT id FROM characters)",
+                        "DELETE FROM user_favorite_counts WHERE user_id NOT IN (SELECT id FROM users)")
+        );
+    }
+
+    // Dates are parsed in Java rather than with julianday() so that existing rows and
+    // new writes agree on which strings count as valid dates.
+    private static void addDateColumns(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("ALTER TABLE media ADD COLUMN release_day INTEGER");
+            stmt.execute("ALTER TABLE characters ADD COLUMN birthday_day INTEGER");
+            stmt.execute("ALTER TABLE characters ADD COLUMN birthday_md INTEGER");
+        }
+
+        try (Statement select = connection.createStatement();
+             ResultSet rs = select.executeQuery("SELECT id, release_date FROM media");
+             PreparedStatement update = connection.prepareStatement("UPDATE media SET release_day = ? WHERE id = ?")) {
+            while (rs.next()) {
+                Integer day = DateFields.toEpochDay(rs.getString("release_date"));
+                if (day != null) {
+                    update.setInt(1, day);
+                    update.setInt(2, rs.getInt("id"));
+                    update.addBatch();
+                }
+            }
+            update.executeBatch();
+        }
+
+        try (Statement select = connection.createStatement();
+             ResultSet rs = select.executeQuery("SELECT id, birthday FROM characters");
+             PreparedStatement update = connection.prepareStatement("UPDATE characters SET birthday_day = ?, birthday_md = ? WHERE id = ?")) {
+            while (rs.next()) {
+                String birthday = rs.getString("birthday");
+                Integer day = DateFields.toEpochDay(birthday);
+                if (day != null) {
+                    update.setInt(1, day);
+                    update.setInt(2, DateFields.toMonthDay(birthday));
+                    update.setInt(3, rs.getInt("id"));
+                    update.addBatch();
+                }
+            }
+            update.executeBatch();
+        }
+
         try (Statement stmt = connection.createStatement()) {
-            stmt.execute(createUsersTable);
-            stmt.execute(createMediaTable);
-            stmt.execute(createCharactersTable);
-            stmt.execute(createFavoritesTable);
-
-            String checkAdmin = "SELECT COUNT(*) FROM users WHERE username = 'admin'";
-            ResultSet rs = stmt.executeQuery(checkAdmin);
-            if (rs.next() && rs.getInt(1) == 0) {
-                String insertAdmin = "INSERT INTO users (username, email, password, is_admin) VALUES ('admin', 'admin@system.com', 'admin', 1)";
-                stmt.execute(insertAdmin);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_media_release_day ON media(release_day)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_characters_birthday_day ON characters(birthday_day)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_characters_birthday_md ON characters(birthday_md)");
+        }
+    }
+
+    private static void addTagTables(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS tags (
+                    id INTEGER PRIMARY KEY AUTOINCREMENT,
+                    name TEXT UNIQUE NOT NULL
+                )
+            """);
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS media_tags (
+                    media_id INTEGER NOT NULL,
+                    tag_id INTEGER NOT NULL,
+                    PRIMARY KEY (media_id, tag_id)
+                ) WITHOUT ROWID
+            """);
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS character_tags (
+                    character_id INTEGER NOT NULL,
+                    tag_id INTEGER NOT NULL,
+                    PRIMARY KEY (character_id, tag_id)
+                ) WITHOUT ROWID
+            """);
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_media_tags_tag_id ON media_tags(tag_id, media_id)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_character_tags_tag_id ON character_tags(tag_id, character_id)");
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS media_tags_delete AFTER DELETE ON media BEGIN
+                    DELETE FROM media_tags WHERE media_id = old.id;
+                END
+            """);
+            stmt.execute("""
+                CREATE TRIGGER IF NOT EXISTS character_tags_delete AFTER DELETE ON characters BEGIN
+                    DELETE FROM character_tags WHERE character_id = old.id;
+                END
+            """);
+        }
+        backfillTags(connection, "media", "media_tags", "media_id");
+        backfillTags(connection, "characters", "character_tags", "character_id");
+    }
+
+    private static void backfillTags(Connection connection, String table, String linkTable, String ownerColumn) throws SQLException {
+        String linkSql = "INSERT OR IGNORE INTO " + linkTable + " (" + ownerColumn + ", tag_id) SELECT ?, id FROM tags WHERE name = ?";
+        try (Statement select = connection.createStatement();
+             ResultSet rs = select.executeQuery("SELECT id, hashtags FROM " + table);
+             PreparedStatement insertTag = connection.prepareStatement("INSERT OR IGNORE INTO tags (name) VALUES (?)");
+             PreparedStatement insertLink = connection.prepareStatement(linkSql)) {
+            while (rs.next()) {
+                int id = rs.getInt("id");
+                for (String tag : Hashtags.parse(rs.getString("hashtags"))) {
+                    insertTag.setString(1, tag);
+                    insertTag.executeUpdate();
+                    insertLink.setInt(1, id);
+                    insertLink.setString(2, tag);
+                    insertLink.addBatch();
+                }
             }
+            insertLink.executeBatch();
         }
     }
 }
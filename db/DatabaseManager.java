@@ -4,26 +4,22 @@ import java.sql.Connection;
 import java.sql.SQLException;
 
 public class DatabaseManager {
-    private Connection connection;
+    private DatabaseConnectionProvider provider;
 
     public DatabaseManager(DatabaseConnectionProvider database) {
-        try {
-            connection = database.getConnection();
+        this.provider = database;
+        try (Connection connection = database.getWriteConnection()) {
             new DatabaseInitializer(connection).initialize();
         } catch (SQLException e) {
             e.printStackTrace();
         }
     }
 
-    public Connection getConnection() {
-        return connection;
+    public DatabaseConnectionProvider getProvider() {
+        return provider;
     }
 
     public void close() {
-        try {
-            if (connection != null) connection.close();
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        provider.close();
     }
 }
@@ -0,0 +1,41 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+public interface Migration {
+    int getVersion();
+    String getDescription();
+    void apply(Connection connection) throws SQLException;
+
+    static Migration of(int version, String description, String... statements) {
+        return of(version, description, connection -> {
+            try (Statement stmt = connection.createStatement()) {
+                for (String sql : statements) {
+                    stmt.execute(sql);
+                }
+            }
+        });
+    }
+
+    static Migration of(int version, String description, Step step) {
+        return new Migration() {
+            @Override
+            public int getVersion() { return version; }
+
+            @Override
+            public String getDescription() { return description; }
+
+            @Override
+            public void apply(Connection connection) throws SQLException {
+                step.apply(connection);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface Step {
+        void apply(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,62 @@
+package db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class MigrationRunner {
+    private final Connection connection;
+    private final List<Migration> migrations;
+
+    public MigrationRunner(Connection connection, List<Migration> migrations) {
+        this.connection = connection;
+        this.migrations = new ArrayList<>(migrations);
+        this.migrations.sort(Comparator.comparingInt(Migration::getVersion));
+    }
+
+    public int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).getVersion();
+    }
+
+    public int getCurrentVersion() throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    public int migrate() throws SQLException {
+        int current = getCurrentVersion();
+        if (current >= getLatestVersion()) {
+            return 0;
+        }
+
+        int applied = 0;
+        boolean autoCommit = connection.getAutoCommit();
+        try {
+            connection.setAutoCommit(false);
+            for (Migration migration : migrations) {
+                if (migration.getVersion() <= current) continue;
+
+                try {
+                    migration.apply(connection);
+                    try (Statement stmt = connection.createStatement()) {
+                        stmt.execute("PRAGMA user_version = " + migration.getVersion());
+                    }
+                    connection.commit();
+                    applied++;
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw new SQLException("Migration " + migration.getVersion() + " (" + migration.getDescription() + ") failed", e);
+                }
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return applied;
+    }
+}
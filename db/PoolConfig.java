@@ -0,0 +1,52 @@
+package db;
+
+import java.util.Set;
+
+public class PoolConfig {
+    private static final Set<String> SYNCHRONOUS_MODES = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+
+    private String url = "jdbc:sqlite:zaz.db";
+    private int readPoolSize = 4;
+    private long acquireTimeoutMillis = 30_000;
+    private int busyTimeoutMillis = 5_000;
+    private String synchronous = "NORMAL";
+    private int cacheSize = -8_000;
+    private long mmapSize = 256L * 1024 * 1024;
+    private int statementCacheSize = 64;
+    private boolean leakStackTraces = false;
+
+    public PoolConfig setUrl(String url) { this.url = url; return this; }
+    public PoolConfig setAcquireTimeoutMillis(long acquireTimeoutMillis) { this.acquireTimeoutMillis = acquireTimeoutMillis; return this; }
+    public PoolConfig setBusyTimeoutMillis(int busyTimeoutMillis) { this.busyTimeoutMillis = busyTimeoutMillis; return this; }
+    public PoolConfig setCacheSize(int cacheSize) { this.cacheSize = cacheSize; return this; }
+    public PoolConfig setMmapSize(long mmapSize) { this.mmapSize = mmapSize; return this; }
+    public PoolConfig setStatementCacheSize(int statementCacheSize) { this.statementCacheSize = statementCacheSize; return this; }
+    public PoolConfig setLeakStackTraces(boolean leakStackTraces) { this.leakStackTraces = leakStackTraces; return this; }
+
+    public PoolConfig setReadPoolSize(int readPoolSize) {
+        if (readPoolSize < 1) {
+            throw new IllegalArgumentException("Read pool size must be at least 1");
+        }
+        this.readPoolSize = readPoolSize;
+        return this;
+    }
+
+    public PoolConfig setSynchronous(String synchronous) {
+        String mode = synchronous.toUpperCase();
+        if (!SYNCHRONOUS_MODES.contains(mode)) {
+            throw new IllegalArgumentException("Unknown synchronous mode: " + synchronous);
+        }
+        this.synchronous = mode;
+        return this;
+    }
+
+    public String getUrl() { return url; }
+    public int getReadPoolSize() { return readPoolSize; }
+    public long getAcquireTimeoutMillis() { return acquireTimeoutMillis; }
+    public int getBusyTimeoutMillis() { return busyTimeoutMillis; }
+    public String getSynchronous() { return synchronous; }
+    public int getCacheSize() { return cacheSize; }
+    public long getMmapSize() { return mmapSize; }
+    public int getStatementCacheSize() { return statementCacheSize; }
+    public boolean isLeakStackTraces() { return leakStackTraces; }
+}
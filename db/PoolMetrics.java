@@ -0,0 +1,47 @@
+package db;
+
+public class PoolMetrics {
+    private final int readPoolSize;
+    private final int readInUse;
+    private final boolean writeInUse;
+    private final long acquisitions;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long timeouts;
+
+    public PoolMetrics(int readPoolSize, int readInUse, boolean writeInUse,
+                       long acquisitions, long totalWaitNanos, long maxWaitNanos, long timeouts) {
+        this.readPoolSize = readPoolSize;
+        this.readInUse = readInUse;
+        this.writeInUse = writeInUse;
+        this.acquisitions = acquisitions;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.timeouts = timeouts;
+    }
+
+    public double getReadUtilization() {
+        return (double) readInUse / readPoolSize;
+    }
+
+    public double getAverageWaitMillis() {
+        return acquisitions == 0 ? 0 : totalWaitNanos / 1_000_000.0 / acquisitions;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos / 1_000_000.0;
+    }
+
+    public int getReadPoolSize() { return readPoolSize; }
+    public int getReadInUse() { return readInUse; }
+    public boolean isWriteInUse() { return writeInUse; }
+    public long getAcquisitions() { return acquisitions; }
+    public long getTimeouts() { return timeouts; }
+
+    @Override
+    public String toString() {
+        return String.format("reads in use: %d/%d (%.0f%%), writer busy: %s, acquisitions: %d, avg wait: %.3f ms, max wait: %.3f ms, timeouts: %d",
+                readInUse, readPoolSize, getReadUtilization() * 100, writeInUse, acquisitions,
+                getAverageWaitMillis(), getMaxWaitMillis(), timeouts);
+    }
+}
@@ -0,0 +1,294 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// WAL-mode pool: a fixed set of read-only connections plus one writer.
+// Leases are reentrant per thread, and a thread holding the writer reads through it
+// so it sees its own uncommitted changes. Each physical connection keeps its own
+// prepared-statement cache; statements still open when a connection goes back to the
+// pool are reported by the leak detector and closed.
+public class SQLiteConnectionPool implements DatabaseConnectionProvider {
+    private final PoolConfig config;
+    private final StatementLeakDetector leakDetector;
+    private final BlockingQueue<PooledConnection> idleReaders;
+    private final List<PooledConnection> allReaders = new ArrayList<>();
+    private final AtomicInteger readersInUse = new AtomicInteger();
+    private final ThreadLocal<ReadHold> readHold = new ThreadLocal<>();
+
+    private final ReentrantLock writeLock = new ReentrantLock(true);
+    private PooledConnection writer;
+
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public SQLiteConnectionPool(PoolConfig config) {
+        this.config = config;
+        this.leakDetector = new StatementLeakDetector(config.isLeakStackTraces());
+        this.idleReaders = new ArrayBlockingQueue<>(config.getReadPoolSize());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getWriteConnection();
+    }
+
+    @Override
+    public Connection getReadConnection() throws SQLException {
+        ensureOpen();
+        if (writeLock.isHeldByCurrentThread()) {
+            return getWriteConnection();
+        }
+
+        ReadHold hold = readHold.get();
+        if (hold != null) {
+            hold.depth++;
+            return lease(hold.connection, () -> releaseRead(hold));
+        }
+
+        long start = System.nanoTime();
+        PooledConnection connection = idleReaders.poll();
+        if (connection == null) {
+            connection = createReaderIfBelowLimit();
+        }
+        if (connection == null) {
+            try {
+                connection = idleReaders.poll(config.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a read connection", e);
+            }
+            if (connection == null) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out waiting for a read connection");
+            }
+        }
+        recordWait(System.nanoTime() - start);
+        readersInUse.incrementAndGet();
+
+        ReadHold newHold = new ReadHold(connection);
+        readHold.set(newHold);
+        return lease(connection, () -> releaseRead(newHold));
+    }
+
+    @Override
+    public Connection getWriteConnection() throws SQLException {
+        ensureOpen();
+        long start = System.nanoTime();
+        try {
+            if (!writeLock.tryLock(config.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out waiting for the write connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the write connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            if (writer == null) {
+                writer = open(false);
+            }
+        } catch (SQLException e) {
+            writeLock.unlock();
+            throw e;
+        }
+        return lease(writer, this::releaseWrite);
+    }
+
+    public PoolMetrics getMetrics() {
+        return new PoolMetrics(config.getReadPoolSize(), readersInUse.get(), writeLock.isLocked(),
+                acquisitions.get(), totalWaitNanos.get(), maxWaitNanos.get(), timeouts.get());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (allReaders) {
+            allReaders.forEach(PooledConnection::close);
+            allReaders.clear();
+        }
+        writeLock.lock();
+        try {
+            if (writer != null) writer.close();
+            writer = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public StatementLeakDetector getLeakDetector() {
+        return leakDetector;
+    }
+
+    private PooledConnection createReaderIfBelowLimit() throws SQLException {
+        synchronized (allReaders) {
+            if (allReaders.size() >= config.getReadPoolSize()) {
+                return null;
+            }
+            PooledConnection connection = open(true);
+            allReaders.add(connection);
+            return connection;
+        }
+    }
+
+    private PooledConnection open(boolean readOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection(config.getUrl());
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + config.getBusyTimeoutMillis());
+            if (!readOnly) {
+                stmt.execute("PRAGMA journal_mode = WAL");
+            }
+            stmt.execute("PRAGMA synchronous = " + config.getSynchronous());
+            stmt.execute("PRAGMA cache_size = " + config.getCacheSize());
+            stmt.execute("PRAGMA mmap_size = " + config.getMmapSize());
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = 1");
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return new PooledConnection(connection,
+                new StatementCache(connection, config.getStatementCacheSize(), leakDetector));
+    }
+
+    private void releaseRead(ReadHold hold) {
+        if (--hold.depth > 0) return;
+
+        readHold.remove();
+        readersInUse.decrementAndGet();
+        hold.connection.statements.reclaimLeaked();
+        if (closed) {
+            hold.connection.close();
+        } else {
+            idleReaders.offer(hold.connection);
+        }
+    }
+
+    private void releaseWrite() {
+        try {
+            if (writeLock.getHoldCount() == 1 && writer != null) {
+                writer.statements.reclaimLeaked();
+                if (!writer.physical.getAutoCommit()) {
+                    writer.physical.rollback();
+                    writer.physical.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        acquisitions.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+    }
+
+    private Connection lease(PooledConnection connection, Runnable release) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Lease(connection, release));
+    }
+
+    private static class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements;
+
+        private PooledConnection(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+        }
+
+        private void close() {
+            statements.close();
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static class ReadHold {
+        private final PooledConnection connection;
+        private int depth = 1;
+
+        private ReadHold(PooledConnection connection) {
+            this.connection = connection;
+        }
+    }
+
+    private static class Lease implements InvocationHandler {
+        private final PooledConnection connection;
+        private final Runnable release;
+        private boolean released;
+
+        private Lease(PooledConnection connection, Runnable release) {
+            this.connection = connection;
+            this.release = release;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!released) {
+                        released = true;
+                        release.run();
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return released || connection.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+            }
+            if (released) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (method.getName().equals("prepareStatement") && args.length <= 2
+                    && (args.length == 1 || args[1] instanceof Integer)) {
+                int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                return connection.statements.prepare((String) args[0], autoGeneratedKeys);
+            }
+            try {
+                return method.invoke(connection.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
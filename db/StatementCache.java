@@ -0,0 +1,160 @@
+package db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Per-connection LRU cache of prepared statements. A statement is checked out while
+// in use and goes back to the cache when the caller closes it; the same SQL used
+// twice at once simply gets a second, uncached statement.
+public class StatementCache {
+    private final Connection connection;
+    private final int maxSize;
+    private final StatementLeakDetector leakDetector;
+    private final LinkedHashMap<String, PreparedStatement> idle = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<PreparedStatement, CheckedOut> inUse = new IdentityHashMap<>();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public StatementCache(Connection connection, int maxSize, StatementLeakDetector leakDetector) {
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.leakDetector = leakDetector;
+    }
+
+    public synchronized PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys + ":" + sql;
+        PreparedStatement statement = idle.remove(key);
+        if (statement != null) {
+            hits++;
+        } else {
+            misses++;
+            statement = connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        CheckedOut checkedOut = new CheckedOut(key, sql, statement, leakDetector.capture());
+        inUse.put(statement, checkedOut);
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, checkedOut);
+    }
+
+    public synchronized void reclaimLeaked() {
+        if (inUse.isEmpty()) return;
+
+        for (CheckedOut checkedOut : new ArrayList<>(inUse.values())) {
+            leakDetector.report(checkedOut.sql, checkedOut.origin);
+            checkedOut.released = true;
+            inUse.remove(checkedOut.statement);
+            closeQuietly(checkedOut.statement);
+        }
+    }
+
+    public synchronized void close() {
+        idle.values().forEach(this::closeQuietly);
+        idle.clear();
+        inUse.keySet().forEach(this::closeQuietly);
+        inUse.clear();
+    }
+
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized int size() { return idle.size(); }
+
+    private synchronized void release(CheckedOut checkedOut) {
+        inUse.remove(checkedOut.statement);
+        try {
+            if (checkedOut.lastResult != null) {
+                checkedOut.lastResult.close();
+            }
+            checkedOut.statement.clearParameters();
+        } catch (SQLException e) {
+            closeQuietly(checkedOut.statement);
+            return;
+        }
+
+        if (maxSize <= 0 || idle.containsKey(checkedOut.key)) {
+            closeQuietly(checkedOut.statement);
+            return;
+        }
+
+        idle.put(checkedOut.key, checkedOut.statement);
+        Iterator<PreparedStatement> eldest = idle.values().iterator();
+        while (idle.size() > maxSize && eldest.hasNext()) {
+            closeQuietly(eldest.next());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private class CheckedOut implements InvocationHandler {
+        private final String key;
+        private final String sql;
+        private final PreparedStatement statement;
+        private final Throwable origin;
+        private ResultSet lastResult;
+        private boolean released;
+
+        private CheckedOut(String key, String sql, PreparedStatement statement, Throwable origin) {
+            this.key = key;
+            this.sql = sql;
+            this.statement = statement;
+            this.origin = origin;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!released) {
+                        released = true;
+                        release(this);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return released;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+            }
+            if (released) {
+                throw new SQLException("Statement has already been closed: " + sql);
+            }
+            try {
+                Object result = method.invoke(statement, args);
+                if (result instanceof ResultSet rs) {
+                    lastResult = rs;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package db;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class StatementLeakDetector {
+    private static final int MAX_RECENT = 20;
+
+    private final boolean captureStackTraces;
+    private final AtomicLong leakCount = new AtomicLong();
+    private final LinkedList<String> recentLeaks = new LinkedList<>();
+
+    public StatementLeakDetector(boolean captureStackTraces) {
+        this.captureStackTraces = captureStackTraces;
+    }
+
+    public Throwable capture() {
+        return captureStackTraces ? new Throwable("Statement prepared here") : null;
+    }
+
+    public void report(String sql, Throwable origin) {
+        leakCount.incrementAndGet();
+        synchronized (recentLeaks) {
+            if (recentLeaks.size() >= MAX_RECENT) {
+                recentLeaks.removeFirst();
+            }
+            recentLeaks.addLast(sql);
+        }
+
+        System.err.println("Unclosed statement returned with its connection: " + sql.strip());
+        if (origin != null) {
+            origin.printStackTrace();
+        }
+    }
+
+    public long getLeakCount() {
+        return leakCount.get();
+    }
+
+    public List<String> getRecentLeaks() {
+        synchronized (recentLeaks) {
+            return new ArrayList<>(recentLeaks);
+        }
+    }
+}
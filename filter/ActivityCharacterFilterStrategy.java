@@ -2,20 +2,22 @@ package filter;
 
 import component.Character;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
-public class ActivityCharacterFilterStrategy implements FilterStrategy<Character> {
+public class ActivityCharacterFilterStrategy extends PredicateFilterStrategy<Character> {
     private String activity;
+    private String lowerActivity;
 
     public ActivityCharacterFilterStrategy(String activity) {
         this.activity = activity;
+        this.lowerActivity = activity.toLowerCase();
+    }
+
+    @Override
+    public boolean matches(Character c) {
+        return containsIgnoreCase(c.getActivity(), lowerActivity);
     }
 
     @Override
-    public List<Character> apply(List<Character> items) {
-        return items.stream()
-                .filter(c -> c.getActivity() != null && c.getActivity().toLowerCase().contains(activity.toLowerCase()))
-                .collect(Collectors.toList());
+    public SqlPredicate toSql() {
+        return SqlPredicate.containsIgnoreCase("activity", activity);
     }
 }
@@ -2,20 +2,57 @@ package filter;
 
 import component.Character;
 
-import java.util.List;
-import java.util.stream.Collectors;
+public class AgeCharacterFilterStrategy extends PredicateFilterStrategy<Character> {
+    private Integer minAge;
+    private Integer maxAge;
 
-public class AgeCharacterFilterStrategy implements FilterStrategy<Character> {
-    private String ageText;
+    public AgeCharacterFilterStrategy(Integer minAge, Integer maxAge) {
+        if (minAge != null && maxAge != null && minAge > maxAge) {
+            throw new IllegalArgumentException("Minimum age is greater than maximum age");
+        }
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+
+    public static AgeCharacterFilterStrategy exactly(int age) {
+        return new AgeCharacterFilterStrategy(age, age);
+    }
 
-    public AgeCharacterFilterStrategy(String ageText) {
-        this.ageText = ageText;
+    // Accepts "25", "20-30", "20-" / "20+" (at least 20) and "-30" (at most 30).
+    public static AgeCharacterFilterStrategy parse(String text) {
+        String value = text.trim();
+        try {
+            if (value.endsWith("+")) {
+                return new AgeCharacterFilterStrategy(Integer.parseInt(value.substring(0, value.length() - 1).trim()), null);
+            }
+            int dash = value.indexOf('-');
+            if (dash < 0) {
+                return exactly(Integer.parseInt(value));
+            }
+            String from = value.substring(0, dash).trim();
+            String to = value.substring(dash + 1).trim();
+            if (from.isEmpty() && to.isEmpty()) {
+                throw new IllegalArgumentException("Empty age range");
+            }
+            return new AgeCharacterFilterStrategy(
+                    from.isEmpty() ? null : Integer.parseInt(from),
+                    to.isEmpty() ? null : Integer.parseInt(to));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid age range: " + text, e);
+        }
     }
 
     @Override
-    public List<Character> apply(List< Character > items) {
-        return items.stream()
-                .filter(c -> String.valueOf(c.getAge()).contains(ageText))
-                .collect(Collectors.toList());
+    public boolean matches(Character c) {
+        int age = c.getAge();
+        return (minAge == null || age >= minAge) && (maxAge == null || age <= maxAge);
     }
+
+    @Override
+    public SqlPredicate toSql() {
+        return SqlPredicate.range("age", minAge, maxAge);
+    }
+
+    public Integer getMinAge() { return minAge; }
+    public Integer getMaxAge() { return maxAge; }
 }
@@ -1,21 +1,98 @@
 package filter;
 
 import component.Character;
+import component.DateFields;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.MonthDay;
+import java.util.Locale;
 
-public class BirthdayCharacterFilterStrategy implements FilterStrategy<Character> {
-    private String birthday;
+// Filters either on the full birth date (epoch days) or, ignoring the year,
+// on month/day stored as month * 100 + day.
+public class BirthdayCharacterFilterStrategy extends PredicateFilterStrategy<Character> {
+    private DayRange days;
+    private Integer fromMonthDay;
+    private Integer toMonthDay;
 
-    public BirthdayCharacterFilterStrategy(String birthday) {
-        this.birthday = birthday;
+    private BirthdayCharacterFilterStrategy(DayRange days, Integer fromMonthDay, Integer toMonthDay) {
+        this.days = days;
+        this.fromMonthDay = fromMonthDay;
+        this.toMonthDay = toMonthDay;
+    }
+
+    public static BirthdayCharacterFilterStrategy between(LocalDate from, LocalDate to) {
+        return new BirthdayCharacterFilterStrategy(DayRange.of(from, to), null, null);
+    }
+
+    public static BirthdayCharacterFilterStrategy year(int year) {
+        return new BirthdayCharacterFilterStrategy(DayRange.year(year), null, null);
+    }
+
+    public static BirthdayCharacterFilterStrategy inMonth(Month month) {
+        return monthDays(MonthDay.of(month, 1), MonthDay.of(month, month.maxLength()));
+    }
+
+    public static BirthdayCharacterFilterStrategy monthDays(MonthDay from, MonthDay to) {
+        int fromValue = DateFields.monthDay(from.getMonthValue(), from.getDayOfMonth());
+        int toValue = DateFields.monthDay(to.getMonthValue(), to.getDayOfMonth());
+        if (fromValue > toValue) {
+            throw new IllegalArgumentException("Start day is after end day");
+        }
+        return new BirthdayCharacterFilterStrategy(null, fromValue, toValue);
+    }
+
+    // Accepts the release-date forms ("1990", "1990-2000", "1990-05-17", "FROM..TO"),
+    // a month ("3" or "March"), a day of the year ("03-14") and "MM-DD..MM-DD".
+    public static BirthdayCharacterFilterStrategy parse(String text) {
+        String value = text.trim();
+        int dots = value.indexOf("..");
+        if (dots >= 0) {
+            String from = value.substring(0, dots).trim();
+            String to = value.substring(dots + 2).trim();
+            if (isMonthDay(from) && isMonthDay(to)) {
+                return monthDays(parseMonthDay(from, true), parseMonthDay(to, false));
+            }
+        } else if (isMonthDay(value)) {
+            return monthDays(parseMonthDay(value, true), parseMonthDay(value, false));
+        }
+        return new BirthdayCharacterFilterStrategy(DayRange.parse(value), null, null);
+    }
+
+    private static boolean isMonthDay(String value) {
+        return value.matches("\\d{1,2}(-\\d{1,2})?") || value.matches("[A-Za-z]+");
+    }
+
+    private static MonthDay parseMonthDay(String value, boolean start) {
+        try {
+            String[] parts = value.split("-");
+            Month month = parts[0].matches("\\d+")
+                    ? Month.of(Integer.parseInt(parts[0]))
+                    : Month.valueOf(parts[0].toUpperCase(Locale.ROOT));
+            if (parts.length == 2) {
+                return MonthDay.of(month, Integer.parseInt(parts[1]));
+            }
+            return MonthDay.of(month, start ? 1 : month.maxLength());
+        } catch (DateTimeException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid birthday: " + value, e);
+        }
+    }
+
+    @Override
+    public boolean matches(Character c) {
+        if (days != null) {
+            return days.contains(c.getBirthdayEpochDay());
+        }
+        Integer monthDay = c.getBirthdayMonthDay();
+        return monthDay != null && monthDay >= fromMonthDay && monthDay <= toMonthDay;
     }
 
     @Override
-    public List<Character> apply(List<Character> items) {
-        return items.stream()
-                .filter(c -> c.getBirthday() != null && c.getBirthday().contains(birthday))
-                .collect(Collectors.toList());
+    public SqlPredicate toSql() {
+        if (days != null) {
+            return SqlPredicate.range("birthday_day", days.from, days.to);
+        }
+        return SqlPredicate.range("birthday_md", fromMonthDay, toMonthDay);
     }
-}
\ No newline at end of file
+}
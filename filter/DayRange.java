@@ -0,0 +1,68 @@
+package filter;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+// Inclusive range of epoch days; either end may be open.
+final class DayRange {
+    final Integer from;
+    final Integer to;
+
+    DayRange(Integer from, Integer to) {
+        if (from != null && to != null && from > to) {
+            throw new IllegalArgumentException("Start date is after end date");
+        }
+        this.from = from;
+        this.to = to;
+    }
+
+    static DayRange of(LocalDate from, LocalDate to) {
+        return new DayRange(from == null ? null : (int) from.toEpochDay(), to == null ? null : (int) to.toEpochDay());
+    }
+
+    static DayRange year(int year) {
+        return of(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+    }
+
+    // Accepts "2015", "2015-03", "2015-03-14", "2015-2020" and "FROM..TO" where either side
+    // is one of the previous forms or empty.
+    static DayRange parse(String text) {
+        String value = text.trim();
+        int dots = value.indexOf("..");
+        if (dots >= 0) {
+            String from = value.substring(0, dots).trim();
+            String to = value.substring(dots + 2).trim();
+            if (from.isEmpty() && to.isEmpty()) {
+                throw new IllegalArgumentException("Empty date range");
+            }
+            return new DayRange(from.isEmpty() ? null : parseSingle(from).from,
+                    to.isEmpty() ? null : parseSingle(to).to);
+        }
+        if (value.matches("\\d{4}\\s*-\\s*\\d{4}")) {
+            String[] years = value.split("-");
+            return new DayRange(year(Integer.parseInt(years[0].trim())).from, year(Integer.parseInt(years[1].trim())).to);
+        }
+        return parseSingle(value);
+    }
+
+    private static DayRange parseSingle(String value) {
+        try {
+            if (value.matches("\\d{4}")) {
+                return year(Integer.parseInt(value));
+            }
+            if (value.matches("\\d{4}-\\d{2}")) {
+                YearMonth month = YearMonth.parse(value);
+                return of(month.atDay(1), month.atEndOfMonth());
+            }
+            LocalDate date = LocalDate.parse(value);
+            return of(date, date);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date: " + value, e);
+        }
+    }
+
+    boolean contains(Integer day) {
+        return day != null && (from == null || day >= from) && (to == null || day <= to);
+    }
+}
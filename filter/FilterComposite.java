@@ -2,6 +2,9 @@ package filter;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 public class FilterComposite<T> implements FilterStrategy<T>{
     private List<FilterStrategy<T>> filters = new ArrayList<>();
@@ -12,10 +15,145 @@ public class FilterComposite<T> implements FilterStrategy<T>{
 
     @Override
     public List<T> apply(List<T> items) {
+        return run(items, false);
+    }
+
+    @Override
+    public SqlPredicate toSql() {
+        List<SqlPredicate> predicates = new ArrayList<>();
+        for (FilterStrategy<T> filter : filters) {
+            SqlPredicate predicate = filter.toSql();
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+        return predicates.isEmpty() ? null : SqlPredicate.and(predicates);
+    }
+
+    @Override
+    public boolean isFullyPushedDown() {
+        for (FilterStrategy<T> filter : filters) {
+            if (!filter.isFullyPushedDown()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<T> applyRemaining(List<T> items) {
+        return run(items, true);
+    }
+
+    @Override
+    public Predicate<T> asPredicate() {
+        List<Predicate<T>> predicates = new ArrayList<>();
+        for (FilterStrategy<T> filter : filters) {
+            Predicate<T> predicate = filter.asPredicate();
+            if (predicate == null) {
+                return null;
+            }
+            predicates.add(predicate);
+        }
+        return all(predicates);
+    }
+
+    @Override
+    public FilterStrategy<T> rewrite(UnaryOperator<FilterStrategy<T>> rewriter) {
+        FilterComposite<T> rewritten = new FilterComposite<>();
+        for (FilterStrategy<T> filter : filters) {
+            rewritten.add(filter.rewrite(rewriter));
+        }
+        return rewritten;
+    }
+
+    @Override
+    public Stream<T> filter(Stream<T> items) {
+        return run(items, false);
+    }
+
+    @Override
+    public Stream<T> filterRemaining(Stream<T> items) {
+        return run(items, true);
+    }
+
+    private Stream<T> run(Stream<T> items, boolean remainingOnly) {
+        Stream<T> result = items;
+        List<Predicate<T>> pending = new ArrayList<>();
+        for (FilterStrategy<T> filter : filters) {
+            boolean nested = filter instanceof FilterComposite;
+            if (remainingOnly && !nested && filter.toSql() != null) {
+                continue;
+            }
+
+            Predicate<T> predicate = remainingOnly && nested ? null : filter.asPredicate();
+            if (predicate != null) {
+                pending.add(predicate);
+                continue;
+            }
+
+            if (!pending.isEmpty()) {
+                result = result.filter(all(pending));
+                pending = new ArrayList<>();
+            }
+            result = remainingOnly ? filter.filterRemaining(result) : filter.filter(result);
+        }
+        return pending.isEmpty() ? result : result.filter(all(pending));
+    }
+
+    // Consecutive element filters are fused into a single pass; filters that only
+    // work on whole lists run on their own between those passes.
+    private List<T> run(List<T> items, boolean remainingOnly) {
         List<T> result = items;
+        List<Predicate<T>> pending = new ArrayList<>();
         for (FilterStrategy<T> filter : filters) {
-            result = filter.apply(result);
+            boolean nested = filter instanceof FilterComposite;
+            if (remainingOnly && !nested && filter.toSql() != null) {
+                continue;
+            }
+
+            Predicate<T> predicate = remainingOnly && nested ? null : filter.asPredicate();
+            if (predicate != null) {
+                pending.add(predicate);
+                continue;
+            }
+
+            result = select(result, pending);
+            pending.clear();
+            result = remainingOnly ? filter.applyRemaining(result) : filter.apply(result);
+        }
+        return select(result, pending);
+    }
+
+    private List<T> select(List<T> items, List<Predicate<T>> predicates) {
+        if (predicates.isEmpty()) {
+            return items;
+        }
+
+        Predicate<T> combined = all(predicates);
+        List<T> result = new ArrayList<>();
+        for (T item : items) {
+            if (combined.test(item)) {
+                result.add(item);
+            }
         }
         return result;
     }
+
+    private Predicate<T> all(List<Predicate<T>> predicates) {
+        if (predicates.size() == 1) {
+            return predicates.get(0);
+        }
+
+        List<Predicate<T>> checks = List.copyOf(predicates);
+        int size = checks.size();
+        return item -> {
+            for (int i = 0; i < size; i++) {
+                if (!checks.get(i).test(item)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
 }
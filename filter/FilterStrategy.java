@@ -1,7 +1,45 @@
 package filter;
 
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 public interface FilterStrategy<T> {
     List<T> apply(List<T> items);
+
+    default SqlPredicate toSql() {
+        return null;
+    }
+
+    // True when toSql() covers the whole filter, so rows need no further checks in memory.
+    default boolean isFullyPushedDown() {
+        return toSql() != null;
+    }
+
+    default List<T> applyRemaining(List<T> items) {
+        return toSql() != null ? items : apply(items);
+    }
+
+    default Predicate<T> asPredicate() {
+        return null;
+    }
+
+    // Element filters stay lazy; list-only filters have to collect the stream first.
+    default Stream<T> filter(Stream<T> items) {
+        Predicate<T> predicate = asPredicate();
+        if (predicate != null) {
+            return items.filter(predicate);
+        }
+        return apply(items.toList()).stream().onClose(items::close);
+    }
+
+    default Stream<T> filterRemaining(Stream<T> items) {
+        return toSql() != null ? items : filter(items);
+    }
+
+    // Lets a service swap filters one of its in-memory indexes can answer for an id lookup.
+    default FilterStrategy<T> rewrite(UnaryOperator<FilterStrategy<T>> rewriter) {
+        return rewriter.apply(this);
+    }
 }
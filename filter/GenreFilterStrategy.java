@@ -1,22 +1,30 @@
 package filter;
 
 import component.Media;
+import component.MediaGenre;
 
-import java.util.List;
+import java.util.EnumSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-public class GenreFilterStrategy implements FilterStrategy<Media> {
-    private Set<String> genres;
+public class GenreFilterStrategy extends PredicateFilterStrategy<Media> {
+    private EnumSet<MediaGenre> genres;
 
-    public GenreFilterStrategy(Set<String> genres) {
-        this.genres = genres;
+    public GenreFilterStrategy(Set<MediaGenre> genres) {
+        this.genres = EnumSet.noneOf(MediaGenre.class);
+        this.genres.addAll(genres);
     }
 
     @Override
-    public List<Media> apply(List< Media > items) {
-        return items.stream()
-                .filter(m -> genres.contains(m.getGenre()))
-                .collect(Collectors.toList());
+    public boolean matches(Media m) {
+        return genres.contains(m.getGenre());
+    }
+
+    @Override
+    public SqlPredicate toSql() {
+        return SqlPredicate.in("genre", genres.stream().map(MediaGenre::getLabel).toList());
+    }
+
+    public Set<MediaGenre> getGenres() {
+        return EnumSet.copyOf(genres);
     }
 }
@@ -1,21 +1,45 @@
 package filter;
 
 import component.Character;
+import component.Hashtags;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
-public class HashtagCharacterFilterStrategy implements FilterStrategy<Character> {
-    private String hashtag;
+public class HashtagCharacterFilterStrategy extends PredicateFilterStrategy<Character> {
+    private List<String> tags;
+    private boolean matchAll;
 
-    public HashtagCharacterFilterStrategy(String hashtag) {
-        this.hashtag = hashtag;
+    public HashtagCharacterFilterStrategy(String hashtags) {
+        this(Hashtags.parse(hashtags), true);
+    }
+
+    private HashtagCharacterFilterStrategy(List<String> tags, boolean matchAll) {
+        if (tags.isEmpty()) {
+            throw new IllegalArgumentException("No hashtags given");
+        }
+        this.tags = tags;
+        this.matchAll = matchAll;
+    }
+
+    public static HashtagCharacterFilterStrategy allOf(String hashtags) {
+        return new HashtagCharacterFilterStrategy(Hashtags.parse(hashtags), true);
+    }
+
+    public static HashtagCharacterFilterStrategy anyOf(String hashtags) {
+        return new HashtagCharacterFilterStrategy(Hashtags.parse(hashtags), false);
     }
 
     @Override
-    public List<Character> apply(List<Character> items) {
-        return items.stream()
-                .filter(c -> c.getHashtags() != null && c.getHashtags().toLowerCase().contains(hashtag.toLowerCase()))
-                .collect(Collectors.toList());
+    public boolean matches(Character c) {
+        List<String> own = c.getTags();
+        return matchAll ? own.containsAll(tags) : tags.stream().anyMatch(own::contains);
     }
+
+    @Override
+    public SqlPredicate toSql() {
+        return SqlPredicate.tagged("character_tags", "character_id", tags, matchAll);
+    }
+
+    public List<String> getTags() { return tags; }
+    public boolean isMatchAll() { return matchAll; }
 }
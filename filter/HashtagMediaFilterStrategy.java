@@ -1,21 +1,45 @@
 package filter;
 
 import component.Media;
+import component.Hashtags;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
-public class HashtagMediaFilterStrategy implements FilterStrategy<Media> {
-    private String hashtag;
+public class HashtagMediaFilterStrategy extends PredicateFilterStrategy<Media> {
+    private List<String> tags;
+    private boolean matchAll;
 
-    public HashtagMediaFilterStrategy(String hashtag) {
-        this.hashtag = hashtag;
+    public HashtagMediaFilterStrategy(String hashtags) {
+        this(Hashtags.parse(hashtags), true);
+    }
+
+    private HashtagMediaFilterStrategy(List<String> tags, boolean matchAll) {
+        if (tags.isEmpty()) {
+            throw new IllegalArgumentException("No hashtags given");
+        }
+        this.tags = tags;
+        this.matchAll = matchAll;
+    }
+
+    public static HashtagMediaFilterStrategy allOf(String hashtags) {
+        return new HashtagMediaFilterStrategy(Hashtags.parse(hashtags), true);
+    }
+
+    public static HashtagMediaFilterStrategy anyOf(String hashtags) {
+        return new HashtagMediaFilterStrategy(Hashtags.parse(hashtags), false);
     }
 
     @Override
-    public List<Media> apply(List<Media> items) {
-        return items.stream()
-                .filter(m -> m.getHashtags() != null && m.getHashtags().toLowerCase().contains(hashtag.toLowerCase()))
-                .collect(Collectors.toList());
+    public boolean matches(Media m) {
+        List<String> own = m.getTags();
+        return matchAll ? own.containsAll(tags) : tags.stream().anyMatch(own::contains);
     }
+
+    @Override
+    public SqlPredicate toSql() {
+        return SqlPredicate.tagged("media_tags", "media_id", tags, matchAll);
+    }
+
+    public List<String> getTags() { return tags; }
+    public boolean isMatchAll() { return matchAll; }
 }
@@ -0,0 +1,30 @@
+package filter;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+// Matches rows whose id is in a set an in-memory index has already computed.
+public class IdFilterStrategy<T> extends PredicateFilterStrategy<T> {
+    private final int[] ids;
+    private final ToIntFunction<T> idOf;
+
+    public IdFilterStrategy(int[] ids, ToIntFunction<T> idOf) {
+        this.ids = ids.clone();
+        Arrays.sort(this.ids);
+        this.idOf = idOf;
+    }
+
+    @Override
+    public boolean matches(T item) {
+        return Arrays.binarySearch(ids, idOf.applyAsInt(item)) >= 0;
+    }
+
+    @Override
+    public SqlPredicate toSql() {
+        return SqlPredicate.idIn("id", ids);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+}
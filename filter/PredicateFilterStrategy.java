@@ -0,0 +1,39 @@
+package filter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+public abstract class PredicateFilterStrategy<T> implements FilterStrategy<T> {
+    public abstract boolean matches(T item);
+
+    @Override
+    public List<T> apply(List<T> items) {
+        List<T> result = new ArrayList<>();
+        for (T item : items) {
+            if (matches(item)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Predicate<T> asPredicate() {
+        return this::matches;
+    }
+
+    // Case-insensitive substring test that compares in place instead of lowering each value.
+    protected static boolean containsIgnoreCase(String value, String needle) {
+        if (value == null) {
+            return false;
+        }
+        int last = value.length() - needle.length();
+        for (int i = 0; i <= last; i++) {
+            if (value.regionMatches(true, i, needle, 0, needle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
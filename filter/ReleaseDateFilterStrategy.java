@@ -2,20 +2,35 @@ package filter;
 
 import component.Media;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.time.LocalDate;
 
-public class ReleaseDateFilterStrategy implements FilterStrategy<Media> {
-    private String releaseDate;
+public class ReleaseDateFilterStrategy extends PredicateFilterStrategy<Media> {
+    private DayRange range;
 
-    public ReleaseDateFilterStrategy(String releaseDate) {
-        this.releaseDate = releaseDate;
+    private ReleaseDateFilterStrategy(DayRange range) {
+        this.range = range;
+    }
+
+    public static ReleaseDateFilterStrategy between(LocalDate from, LocalDate to) {
+        return new ReleaseDateFilterStrategy(DayRange.of(from, to));
+    }
+
+    public static ReleaseDateFilterStrategy year(int year) {
+        return new ReleaseDateFilterStrategy(DayRange.year(year));
+    }
+
+    // Accepts "2015", "2015-03", "2015-03-14", "2015-2020" and "FROM..TO" (either side optional).
+    public static ReleaseDateFilterStrategy parse(String text) {
+        return new ReleaseDateFilterStrategy(DayRange.parse(text));
+    }
+
+    @Override
+    public boolean matches(Media m) {
+        return range.contains(m.getReleaseEpochDay());
     }
 
     @Override
-    public List<Media> apply(List<Media> items) {
-        return items.stream()
-                .filter(m -> m.getReleaseDate() != null && m.getReleaseDate().contains(releaseDate))
-                .collect(Collectors.toList());
+    public SqlPredicate toSql() {
+        return SqlPredicate.range("release_day", range.from, range.to);
     }
 }
@@ -2,20 +2,22 @@ package filter;
 
 import component.Character;
 
-import java.util.List;
-import java.util.stream.Collectors;
-
-public class SpeciesCharacterFilterStrategy implements FilterStrategy<Character> {
+public class SpeciesCharacterFilterStrategy extends PredicateFilterStrategy<Character> {
     private String species;
+    private String lowerSpecies;
 
     public SpeciesCharacterFilterStrategy(String species) {
         this.species = species;
+        this.lowerSpecies = species.toLowerCase();
+    }
+
+    @Override
+    public boolean matches(Character c) {
+        return containsIgnoreCase(c.getSpecies(), lowerSpecies);
     }
 
     @Override
-    public List<Character> apply(List<Character> items) {
-        return items.stream()
-                .filter(c -> c.getSpecies() != null && c.getSpecies().toLowerCase().contains(species.toLowerCase()))
-                .collect(Collectors.toList());
+    public SqlPredicate toSql() {
+        return SqlPredicate.containsIgnoreCase("species", species);
     }
-}
\ No newline at end of file
+}
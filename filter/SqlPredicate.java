@@ -0,0 +1,102 @@
+package filter;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class SqlPredicate {
+    private final String clause;
+    private final List<Object> params;
+
+    public SqlPredicate(String clause, List<Object> params) {
+        this.clause = clause;
+        this.params = Collections.unmodifiableList(new ArrayList<>(params));
+    }
+
+    public static SqlPredicate of(String clause, Object... params) {
+        return new SqlPredicate(clause, List.of(params));
+    }
+
+    public static SqlPredicate in(String column, Collection<?> values) {
+        if (values.isEmpty()) {
+            return of("1 = 0");
+        }
+        String placeholders = values.stream().map(v -> "?").collect(Collectors.joining(", "));
+        return new SqlPredicate(column + " IN (" + placeholders + ")", new ArrayList<>(values));
+    }
+
+    // Id sets from the in-memory indexes can be far larger than SQLite's parameter limit, so the
+    // whole set is bound once as a JSON array and expanded by json_each.
+    public static SqlPredicate idIn(String column, int[] ids) {
+        if (ids.length == 0) {
+            return of("1 = 0");
+        }
+        return of(column + " IN (SELECT value FROM json_each(?))", Arrays.toString(ids));
+    }
+
+    public static SqlPredicate containsIgnoreCase(String column, String text) {
+        String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return of(column + " LIKE ? ESCAPE '\\'", "%" + escaped + "%");
+    }
+
+    public static SqlPredicate contains(String column, String text) {
+        return of("instr(" + column + ", ?) > 0", text);
+    }
+
+    public static SqlPredicate range(String column, Integer min, Integer max) {
+        if (min != null && max != null) {
+            return of(column + " BETWEEN ? AND ?", min, max);
+        }
+        if (min != null) {
+            return of(column + " >= ?", min);
+        }
+        if (max != null) {
+            return of(column + " <= ?", max);
+        }
+        return null;
+    }
+
+    // Rows whose id has all (or any) of the given tags in the link table.
+    public static SqlPredicate tagged(String linkTable, String ownerColumn, Collection<String> tags, boolean matchAll) {
+        if (tags.isEmpty()) {
+            return of("1 = 0");
+        }
+        String placeholders = tags.stream().map(t -> "?").collect(Collectors.joining(", "));
+        String subquery = "SELECT l." + ownerColumn + " FROM " + linkTable + " l JOIN tags t ON t.id = l.tag_id"
+                + " WHERE t.name IN (" + placeholders + ")";
+        List<Object> params = new ArrayList<>(tags);
+        if (matchAll) {
+            subquery += " GROUP BY l." + ownerColumn + " HAVING COUNT(*) = ?";
+            params.add(tags.size());
+        }
+        return new SqlPredicate("id IN (" + subquery + ")", params);
+    }
+
+    public static SqlPredicate and(List<SqlPredicate> predicates) {
+        if (predicates.size() == 1) {
+            return predicates.get(0);
+        }
+        List<Object> params = new ArrayList<>();
+        predicates.forEach(p -> params.addAll(p.params));
+        String clause = predicates.stream()
+                .map(p -> "(" + p.clause + ")")
+                .collect(Collectors.joining(" AND "));
+        return new SqlPredicate(clause, params);
+    }
+
+    public int bind(PreparedStatement stmt, int firstIndex) throws SQLException {
+        int index = firstIndex;
+        for (Object param : params) {
+            stmt.setObject(index++, param);
+        }
+        return index;
+    }
+
+    public String getClause() { return clause; }
+    public List<Object> getParams() { return params; }
+}
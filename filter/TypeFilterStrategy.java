@@ -1,22 +1,30 @@
 package filter;
 
 import component.Media;
+import component.MediaType;
 
-import java.util.List;
+import java.util.EnumSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
-public class TypeFilterStrategy implements FilterStrategy<Media> {
-    private Set<String> types;
+public class TypeFilterStrategy extends PredicateFilterStrategy<Media> {
+    private EnumSet<MediaType> types;
 
-    public TypeFilterStrategy(Set<String> types) {
-        this.types = types;
+    public TypeFilterStrategy(Set<MediaType> types) {
+        this.types = EnumSet.noneOf(MediaType.class);
+        this.types.addAll(types);
     }
 
     @Override
-    public List<Media> apply(List<Media> items) {
-        return items.stream()
-                .filter(m -> types.contains(m.getType()))
-                .collect(Collectors.toList());
+    public boolean matches(Media m) {
+        return types.contains(m.getType());
+    }
+
+    @Override
+    public SqlPredicate toSql() {
+        return SqlPredicate.in("type", types.stream().map(MediaType::getLabel).toList());
+    }
+
+    public Set<MediaType> getTypes() {
+        return EnumSet.copyOf(types);
     }
 }
@@ -0,0 +1,260 @@
+package importer;
+
+import builder.CharacterBuilder;
+import builder.MediaBuilder;
+import component.MediaGenre;
+import component.MediaType;
+import service.CharacterService;
+import service.MediaService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Streams a JSONL or CSV catalog into the database, writing each chunk of media or
+// characters as one batch in one transaction. Records are media ("kind": "media", with
+// title, description, releaseDate, type, genre, hashtags) or characters ("kind":
+// "character", with name, age, birthday, gender, species, activity, description,
+// hashtags and either mediaId or media = the title of media imported earlier in the
+// same file). Any other character fields become additional fields.
+public class CatalogImporter {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private static final Set<String> CHARACTER_FIELDS = Set.of("kind", "name", "age", "birthday", "gender",
+            "species", "activity", "description", "hashtags", "mediaId", "media");
+
+    private final MediaService mediaService;
+    private final CharacterService characterService;
+    private final int chunkSize;
+
+    public CatalogImporter(MediaService mediaService, CharacterService characterService) {
+        this(mediaService, characterService, DEFAULT_CHUNK_SIZE);
+    }
+
+    public CatalogImporter(MediaService mediaService, CharacterService characterService, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.mediaService = mediaService;
+        this.characterService = characterService;
+        this.chunkSize = chunkSize;
+    }
+
+    public ImportResult importFile(Path path, int userId) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        RecordReader records = name.endsWith(".csv") ? new CsvReader(reader) : new JsonLinesReader(reader);
+        try (records) {
+            return importRecords(records, userId);
+        }
+    }
+
+    public ImportResult importRecords(RecordReader records, int userId) throws IOException {
+        ImportResult result = new ImportResult();
+        Run run = new Run(result);
+        long start = System.nanoTime();
+
+        while (true) {
+            Map<String, String> record;
+            try {
+                record = records.next();
+            } catch (IllegalArgumentException e) {
+                result.skip(records.getLineNumber(), e.getMessage());
+                continue;
+            }
+            if (record == null) break;
+
+            int line = records.getLineNumber();
+            try {
+                if (isMedia(record)) {
+                    run.addMedia(toMedia(record, userId), line);
+                } else {
+                    run.addCharacter(toCharacter(record, run), line);
+                }
+            } catch (IllegalArgumentException e) {
+                result.skip(line, e.getMessage());
+            }
+        }
+        run.flushMedia();
+        run.flushCharacters();
+
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private boolean isMedia(Map<String, String> record) {
+        String kind = record.get("kind");
+        if (kind == null) {
+            return !record.containsKey("name");
+        }
+        return switch (kind.trim().toLowerCase(Locale.ROOT)) {
+            case "media" -> true;
+            case "character" -> false;
+            default -> throw new IllegalArgumentException("unknown kind '" + kind + "'");
+        };
+    }
+
+    private MediaBuilder toMedia(Map<String, String> record, int userId) {
+        return new MediaBuilder()
+                .setTitle(required(record, "title"))
+                .setDescription(record.get("description"))
+                .setReleaseDate(record.get("releaseDate"))
+                .setType(MediaType.fromLabel(record.get("type")))
+                .setGenre(MediaGenre.fromLabel(record.get("genre")))
+                .setHashtags(record.get("hashtags"))
+                .setUserId(userId);
+    }
+
+    private CharacterBuilder toCharacter(Map<String, String> record, Run run) {
+        CharacterBuilder builder = new CharacterBuilder()
+                .setName(required(record, "name"))
+                .setAge(parseInt(record, "age", 0))
+                .setBirthday(record.get("birthday"))
+                .setGender(record.get("gender"))
+                .setSpecies(record.get("species"))
+                .setActivity(record.get("activity"))
+                .setDescription(record.get("description"))
+                .setHashtags(record.get("hashtags"))
+                .setMediaId(run.resolveMediaId(record));
+        record.forEach((key, value) -> {
+            if (!CHARACTER_FIELDS.contains(key)) {
+                builder.addAdditionalField(key, value);
+            }
+        });
+        return builder;
+    }
+
+    private static String required(Map<String, String> record, String field) {
+        String value = record.get(field);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("missing " + field);
+        }
+        return value;
+    }
+
+    private static int parseInt(Map<String, String> record, String field, int defaultValue) {
+        String value = record.get(field);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + field + " '" + value + "'");
+        }
+    }
+
+    // Buffers of pending rows and their source lines for one import, plus the ids of media
+    // titles already written and of media ids already checked against the database.
+    private class Run {
+        private final ImportResult result;
+        private final List<MediaBuilder> pendingMedia = new ArrayList<>();
+        private final List<Integer> pendingMediaLines = new ArrayList<>();
+        private final List<CharacterBuilder> pendingCharacters = new ArrayList<>();
+        private final List<Integer> pendingCharacterLines = new ArrayList<>();
+        private final Map<String, Integer> mediaIdsByTitle = new HashMap<>();
+        private final Set<String> pendingTitles = new HashSet<>();
+        private final Set<Integer> knownMediaIds = new HashSet<>();
+
+        private Run(ImportResult result) {
+            this.result = result;
+        }
+
+        void addMedia(MediaBuilder media, int line) {
+            pendingMedia.add(media);
+            pendingMediaLines.add(line);
+            pendingTitles.add(media.getTitle());
+            if (pendingMedia.size() >= chunkSize) {
+                flushMedia();
+            }
+        }
+
+        void addCharacter(CharacterBuilder character, int line) {
+            pendingCharacters.add(character);
+            pendingCharacterLines.add(line);
+            if (pendingCharacters.size() >= chunkSize) {
+                flushCharacters();
+            }
+        }
+
+        int resolveMediaId(Map<String, String> record) {
+            if (record.containsKey("mediaId")) {
+                return parseInt(record, "mediaId", 0);
+            }
+            String title = required(record, "media");
+            if (pendingTitles.contains(title)) {
+                flushMedia();
+            }
+            Integer id = mediaIdsByTitle.get(title);
+            if (id == null) {
+                throw new IllegalArgumentException("unknown media '" + title + "'");
+            }
+            return id;
+        }
+
+        void flushMedia() {
+            if (pendingMedia.isEmpty()) return;
+            int[] ids = mediaService.createMediaBatch(pendingMedia);
+            if (ids.length == pendingMedia.size()) {
+                for (int i = 0; i < ids.length; i++) {
+                    mediaIdsByTitle.put(pendingMedia.get(i).getTitle(), ids[i]);
+                    knownMediaIds.add(ids[i]);
+                }
+                result.addMedia(ids.length);
+            } else {
+                result.failChunk(pendingMediaLines, "media");
+            }
+            pendingMedia.clear();
+            pendingMediaLines.clear();
+            pendingTitles.clear();
+        }
+
+        void flushCharacters() {
+            dropUnknownMedia();
+            if (pendingCharacters.isEmpty()) return;
+            int[] ids = characterService.createCharacters(pendingCharacters);
+            if (ids.length == pendingCharacters.size()) {
+                result.addCharacters(ids.length);
+            } else {
+                result.failChunk(pendingCharacterLines, "characters");
+            }
+            pendingCharacters.clear();
+            pendingCharacterLines.clear();
+        }
+
+        // Media ids given directly in the file are checked in one query per chunk, so a
+        // typo skips that record instead of creating an orphan character.
+        private void dropUnknownMedia() {
+            Set<Integer> unchecked = new HashSet<>();
+            for (CharacterBuilder character : pendingCharacters) {
+                if (!knownMediaIds.contains(character.getMediaId())) {
+                    unchecked.add(character.getMediaId());
+                }
+            }
+            if (unchecked.isEmpty()) return;
+            knownMediaIds.addAll(mediaService.getExistingMediaIds(unchecked));
+
+            int kept = 0;
+            for (int i = 0; i < pendingCharacters.size(); i++) {
+                CharacterBuilder character = pendingCharacters.get(i);
+                if (knownMediaIds.contains(character.getMediaId())) {
+                    pendingCharacters.set(kept, character);
+                    pendingCharacterLines.set(kept++, pendingCharacterLines.get(i));
+                } else {
+                    result.skip(pendingCharacterLines.get(i), "unknown media id " + character.getMediaId());
+                }
+            }
+            pendingCharacters.subList(kept, pendingCharacters.size()).clear();
+            pendingCharacterLines.subList(kept, pendingCharacterLines.size()).clear();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Comma-separated records with a header row. Fields may be double-quoted, with "" for a
+// literal quote; a quoted field may span lines.
+public class CsvReader implements RecordReader {
+    private final BufferedReader reader;
+    private List<String> header;
+    private int lineNumber;
+
+    public CsvReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        if (header == null) {
+            header = readRow();
+            if (header == null) return null;
+            header.replaceAll(String::trim);
+        }
+
+        List<String> row;
+        do {
+            row = readRow();
+            if (row == null) return null;
+        } while (row.size() == 1 && row.get(0).isBlank());
+
+        if (row.size() > header.size()) {
+            throw new IllegalArgumentException("expected " + header.size() + " fields but found " + row.size());
+        }
+        Map<String, String> record = new LinkedHashMap<>();
+        for (int i = 0; i < row.size(); i++) {
+            if (!row.get(i).isEmpty()) {
+                record.put(header.get(i), row.get(i));
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readRow() throws IOException {
+        String line = reader.readLine();
+        if (line == null) return null;
+        lineNumber++;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i >= line.length()) {
+                if (!quoted) break;
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IllegalArgumentException("unterminated quoted field");
+                }
+                lineNumber++;
+                field.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,53 @@
+package importer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ImportResult {
+    private static final int MAX_ERRORS = 20;
+
+    private int mediaImported;
+    private int charactersImported;
+    private int skipped;
+    private long elapsedMillis;
+    private final List<String> errors = new ArrayList<>();
+
+    void addMedia(int count) { mediaImported += count; }
+    void addCharacters(int count) { charactersImported += count; }
+
+    void skip(int lineNumber, String reason) {
+        skipped++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("line " + lineNumber + ": " + reason);
+        }
+    }
+
+    // Media and character rows interleave in a file, so the range can also span other records.
+    void failChunk(List<Integer> lineNumbers, String what) {
+        skipped += lineNumbers.size();
+        if (errors.size() < MAX_ERRORS && !lineNumbers.isEmpty()) {
+            int first = lineNumbers.get(0);
+            int last = lineNumbers.get(lineNumbers.size() - 1);
+            errors.add("lines " + first + "-" + last + ": failed to write a chunk of " + lineNumbers.size() + " " + what);
+        }
+    }
+
+    void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public int getMediaImported() { return mediaImported; }
+    public int getCharactersImported() { return charactersImported; }
+    public int getSkipped() { return skipped; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public List<String> getErrors() { return Collections.unmodifiableList(errors); }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? 0 : (mediaImported + charactersImported) * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %d media and %d characters in %d ms (%.0f rows/s), skipped %d",
+                mediaImported, charactersImported, elapsedMillis, getRowsPerSecond(), skipped);
+    }
+}
@@ -0,0 +1,157 @@
+package importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// One flat JSON object per line. Values may be strings, numbers, booleans or null;
+// nested objects and arrays are rejected.
+public class JsonLinesReader implements RecordReader {
+    private final BufferedReader reader;
+    private int lineNumber;
+
+    private String line;
+    private int pos;
+
+    public JsonLinesReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!line.isBlank()) {
+                pos = 0;
+                return parseObject();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Map<String, String> parseObject() {
+        Map<String, String> record = new LinkedHashMap<>();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return record;
+        }
+        while (true) {
+            skipWhitespace();
+            String key = parseString();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            String value = parseValue();
+            if (value != null) {
+                record.put(key, value);
+            }
+            skipWhitespace();
+            char c = next(",}");
+            if (c == '}') {
+                break;
+            }
+        }
+        skipWhitespace();
+        if (pos != line.length()) {
+            throw error("unexpected text after object");
+        }
+        return record;
+    }
+
+    private String parseValue() {
+        char c = peek();
+        if (c == '"') {
+            return parseString();
+        }
+        if (c == '{' || c == '[') {
+            throw error("nested values are not supported");
+        }
+        int start = pos;
+        while (pos < line.length() && ",} \t".indexOf(line.charAt(pos)) < 0) {
+            pos++;
+        }
+        String literal = line.substring(start, pos);
+        if (literal.equals("null")) {
+            return null;
+        }
+        if (literal.equals("true") || literal.equals("false") || literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+            return literal;
+        }
+        throw error("invalid value '" + literal + "'");
+    }
+
+    private String parseString() {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (pos < line.length()) {
+            char c = line.charAt(pos++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (pos >= line.length()) break;
+            char escaped = line.charAt(pos++);
+            switch (escaped) {
+                case 'n' -> sb.append('\n');
+                case 't' -> sb.append('\t');
+                case 'r' -> sb.append('\r');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if (pos + 4 > line.length()) throw error("truncated unicode escape");
+                    try {
+                        sb.append((char) Integer.parseInt(line.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("invalid unicode escape");
+                    }
+                    pos += 4;
+                }
+                default -> sb.append(escaped);
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    private char peek() {
+        if (pos >= line.length()) throw error("unexpected end of line");
+        return line.charAt(pos);
+    }
+
+    private char next(String allowed) {
+        char c = peek();
+        if (allowed.indexOf(c) < 0) throw error("expected one of " + allowed);
+        pos++;
+        return c;
+    }
+
+    private void expect(char expected) {
+        if (peek() != expected) throw error("expected '" + expected + "'");
+        pos++;
+    }
+
+    private void skipWhitespace() {
+        while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at column " + (pos + 1));
+    }
+}
@@ -0,0 +1,12 @@
+package importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+
+// Reads one flat record per call; null at end of input. Malformed records throw
+// IllegalArgumentException and the reader moves on to the next one.
+public interface RecordReader extends Closeable {
+    Map<String, String> next() throws IOException;
+    int getLineNumber();
+}
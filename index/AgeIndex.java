@@ -0,0 +1,114 @@
+package index;
+
+import java.util.Arrays;
+
+public class AgeIndex {
+    private final int[] ages;
+    private final int[] ids;
+
+    private AgeIndex(int[] ages, int[] ids) {
+        this.ages = ages;
+        this.ids = ids;
+    }
+
+    public static AgeIndex build(int[] ages, int[] ids) {
+        long[] keys = new long[ages.length];
+        for (int i = 0; i < ages.length; i++) {
+            keys[i] = ((long) ages[i] << 32) | Integer.toUnsignedLong(ids[i]);
+        }
+        Arrays.sort(keys);
+
+        int[] sortedAges = new int[keys.length];
+        int[] sortedIds = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sortedAges[i] = (int) (keys[i] >> 32);
+            sortedIds[i] = (int) keys[i];
+        }
+        return new AgeIndex(sortedAges, sortedIds);
+    }
+
+    public int[] idsInRange(Integer minAge, Integer maxAge) {
+        int from = minAge == null ? 0 : firstAtLeast(minAge);
+        int to = maxAge == null ? ages.length : firstAbove(maxAge);
+        return from >= to ? new int[0] : Arrays.copyOfRange(ids, from, to);
+    }
+
+    public int countInRange(Integer minAge, Integer maxAge) {
+        int from = minAge == null ? 0 : firstAtLeast(minAge);
+        int to = maxAge == null ? ages.length : firstAbove(maxAge);
+        return Math.max(0, to - from);
+    }
+
+    public int size() {
+        return ages.length;
+    }
+
+    // Copies rather than mutates, so readers holding the old index keep a consistent view.
+    public AgeIndex with(int age, int id) {
+        return withAll(new int[] {age}, new int[] {id});
+    }
+
+    // One sorted merge for a whole batch, so a chunk costs one copy of the index.
+    public AgeIndex withAll(int[] newAges, int[] newIds) {
+        AgeIndex added = build(newAges, newIds);
+        int[] mergedAges = new int[ages.length + added.ages.length];
+        int[] mergedIds = new int[mergedAges.length];
+        int i = 0, j = 0, k = 0;
+        while (i < ages.length && j < added.ages.length) {
+            if (compare(ages[i], ids[i], added.ages[j], added.ids[j]) <= 0) {
+                mergedAges[k] = ages[i];
+                mergedIds[k++] = ids[i++];
+            } else {
+                mergedAges[k] = added.ages[j];
+                mergedIds[k++] = added.ids[j++];
+            }
+        }
+        for (; i < ages.length; i++, k++) {
+            mergedAges[k] = ages[i];
+            mergedIds[k] = ids[i];
+        }
+        for (; j < added.ages.length; j++, k++) {
+            mergedAges[k] = added.ages[j];
+            mergedIds[k] = added.ids[j];
+        }
+        return new AgeIndex(mergedAges, mergedIds);
+    }
+
+    public AgeIndex without(int id) {
+        for (int at = 0; at < ids.length; at++) {
+            if (ids[at] == id) {
+                int[] newAges = new int[ages.length - 1];
+                int[] newIds = new int[ids.length - 1];
+                System.arraycopy(ages, 0, newAges, 0, at);
+                System.arraycopy(ids, 0, newIds, 0, at);
+                System.arraycopy(ages, at + 1, newAges, at, ages.length - at - 1);
+                System.arraycopy(ids, at + 1, newIds, at, ids.length - at - 1);
+                return new AgeIndex(newAges, newIds);
+            }
+        }
+        return this;
+    }
+
+    private static int compare(int age, int id, int otherAge, int otherId) {
+        int byAge = Integer.compare(age, otherAge);
+        return byAge != 0 ? byAge : Integer.compareUnsigned(id, otherId);
+    }
+
+    private int firstAtLeast(int age) {
+        int low = 0;
+        int high = ages.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ages[mid] < age) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int firstAbove(int age) {
+        return age == Integer.MAX_VALUE ? ages.length : firstAtLeast(age + 1);
+    }
+}
@@ -0,0 +1,172 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Sparse item-to-item matrix counting how many users favorited both items, plus the top
+// neighbours of each item ranked by that count and then by lower id. The matrix is built
+// with fork/join over users and then adjusted one favorite at a time; only the rows a change
+// touches have their neighbours recomputed. Neighbour arrays are replaced, never mutated.
+public class CoOccurrenceIndex {
+    private static final int[] EMPTY = new int[0];
+    private static final int USERS_PER_TASK = 64;
+
+    private final int neighbourCount;
+    private final Map<Integer, Map<Integer, Integer>> matrix;
+    private final Map<Integer, int[]> neighbours = new ConcurrentHashMap<>();
+
+    private CoOccurrenceIndex(int neighbourCount, Map<Integer, Map<Integer, Integer>> matrix) {
+        this.neighbourCount = neighbourCount;
+        this.matrix = matrix;
+    }
+
+    public static CoOccurrenceIndex build(int neighbourCount, Map<Integer, int[]> favoritesByUser) {
+        if (neighbourCount < 1) {
+            throw new IllegalArgumentException("Neighbour count must be positive");
+        }
+        List<int[]> sets = new ArrayList<>(favoritesByUser.values());
+        Map<Integer, Map<Integer, Integer>> matrix = ForkJoinPool.commonPool().invoke(new PairCountTask(sets, 0, sets.size()));
+
+        CoOccurrenceIndex index = new CoOccurrenceIndex(neighbourCount, matrix);
+        matrix.keySet().parallelStream().forEach(index::rank);
+        return index;
+    }
+
+    public int[] neighbours(int itemId, int limit) {
+        int[] ranked = neighbours.getOrDefault(itemId, EMPTY);
+        return Arrays.copyOf(ranked, Math.min(Math.max(limit, 0), ranked.length));
+    }
+
+    // otherItems are the user's other favorites of the same kind; itemId itself is skipped.
+    public synchronized void favoriteAdded(int itemId, int[] otherItems) {
+        adjust(itemId, otherItems, 1);
+    }
+
+    public synchronized void favoriteRemoved(int itemId, int[] otherItems) {
+        adjust(itemId, otherItems, -1);
+    }
+
+    // Takes back every pair a deleted user's favorite set contributed.
+    public synchronized void removeSet(int[] items) {
+        for (int i = 0; i < items.length; i++) {
+            for (int j = i + 1; j < items.length; j++) {
+                increment(items[i], items[j], -1);
+                increment(items[j], items[i], -1);
+            }
+        }
+        for (int item : items) {
+            rank(item);
+        }
+    }
+
+    public synchronized void removeItem(int itemId) {
+        Map<Integer, Integer> row = matrix.remove(itemId);
+        neighbours.remove(itemId);
+        if (row == null) return;
+
+        for (int other : row.keySet()) {
+            Map<Integer, Integer> otherRow = matrix.get(other);
+            if (otherRow != null) {
+                otherRow.remove(itemId);
+                if (otherRow.isEmpty()) {
+                    matrix.remove(other);
+                }
+            }
+            rank(other);
+        }
+    }
+
+    private void adjust(int itemId, int[] otherItems, int delta) {
+        boolean changed = false;
+        for (int other : otherItems) {
+            if (other == itemId) continue;
+            increment(itemId, other, delta);
+            increment(other, itemId, delta);
+            rank(other);
+            changed = true;
+        }
+        if (changed) {
+            rank(itemId);
+        }
+    }
+
+    private void increment(int row, int column, int delta) {
+        Map<Integer, Integer> counts = matrix.computeIfAbsent(row, k -> new HashMap<>());
+        int count = counts.getOrDefault(column, 0) + delta;
+        if (count > 0) {
+            counts.put(column, count);
+        } else {
+            counts.remove(column);
+            if (counts.isEmpty()) {
+                matrix.remove(row);
+            }
+        }
+    }
+
+    private void rank(int itemId) {
+        Map<Integer, Integer> row = matrix.get(itemId);
+        if (row == null || row.isEmpty()) {
+            neighbours.remove(itemId);
+            return;
+        }
+        int[] ranked = row.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<Integer, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                        .thenComparingInt(Map.Entry::getKey))
+                .limit(neighbourCount)
+                .mapToInt(Map.Entry::getKey)
+                .toArray();
+        neighbours.put(itemId, ranked);
+    }
+
+    private static class PairCountTask extends RecursiveTask<Map<Integer, Map<Integer, Integer>>> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<int[]> sets;
+        private final int from;
+        private final int to;
+
+        private PairCountTask(List<int[]> sets, int from, int to) {
+            this.sets = sets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Integer, Map<Integer, Integer>> compute() {
+            if (to - from <= USERS_PER_TASK) {
+                Map<Integer, Map<Integer, Integer>> counts = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    int[] items = sets.get(i);
+                    if (items.length < 2) continue;
+                    for (int a : items) {
+                        Map<Integer, Integer> row = counts.computeIfAbsent(a, k -> new HashMap<>());
+                        for (int b : items) {
+                            if (a != b) {
+                                row.merge(b, 1, Integer::sum);
+                            }
+                        }
+                    }
+                }
+                return counts;
+            }
+
+            int mid = (from + to) >>> 1;
+            PairCountTask left = new PairCountTask(sets, from, mid);
+            left.fork();
+            Map<Integer, Map<Integer, Integer>> right = new PairCountTask(sets, mid, to).compute();
+            Map<Integer, Map<Integer, Integer>> merged = left.join();
+            right.forEach((item, row) -> {
+                Map<Integer, Integer> target = merged.computeIfAbsent(item, k -> new HashMap<>());
+                row.forEach((other, count) -> target.merge(other, count, Integer::sum));
+            });
+            return merged;
+        }
+    }
+}
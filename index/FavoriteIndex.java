@@ -0,0 +1,114 @@
+package index;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-user favorite sets as sorted, duplicate-free id arrays, one map for media and one for
+// characters. Favorites per user are sparse, so a sorted array is the compact form and costs
+// four bytes per favorite. Arrays are replaced rather than mutated, so reads need no lock.
+public class FavoriteIndex {
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<Integer, int[]> media;
+    private final Map<Integer, int[]> characters;
+
+    private FavoriteIndex(Map<Integer, int[]> media, Map<Integer, int[]> characters) {
+        this.media = media;
+        this.characters = characters;
+    }
+
+    public static FavoriteIndex build(Map<Integer, int[]> mediaByUser, Map<Integer, int[]> charactersByUser) {
+        return new FavoriteIndex(sorted(mediaByUser), sorted(charactersByUser));
+    }
+
+    public boolean contains(int userId, int itemId, boolean isMedia) {
+        return Arrays.binarySearch(set(userId, isMedia), itemId) >= 0;
+    }
+
+    public int count(int userId, boolean isMedia) {
+        return set(userId, isMedia).length;
+    }
+
+    public int[] ids(int userId, boolean isMedia) {
+        return set(userId, isMedia).clone();
+    }
+
+    public int[] common(int userId, int otherUserId, boolean isMedia) {
+        int[] a = set(userId, isMedia);
+        int[] b = set(otherUserId, isMedia);
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[k++] = a[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    public synchronized void add(int userId, int itemId, boolean isMedia) {
+        int[] ids = set(userId, isMedia);
+        int at = Arrays.binarySearch(ids, itemId);
+        if (at >= 0) return;
+
+        int insert = -at - 1;
+        int[] updated = new int[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, insert);
+        updated[insert] = itemId;
+        System.arraycopy(ids, insert, updated, insert + 1, ids.length - insert);
+        sets(isMedia).put(userId, updated);
+    }
+
+    public synchronized void remove(int userId, int itemId, boolean isMedia) {
+        int[] ids = set(userId, isMedia);
+        int at = Arrays.binarySearch(ids, itemId);
+        if (at < 0) return;
+
+        if (ids.length == 1) {
+            sets(isMedia).remove(userId);
+            return;
+        }
+        int[] updated = new int[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, at);
+        System.arraycopy(ids, at + 1, updated, at, ids.length - at - 1);
+        sets(isMedia).put(userId, updated);
+    }
+
+    public synchronized void removeUser(int userId) {
+        media.remove(userId);
+        characters.remove(userId);
+    }
+
+    public synchronized void removeItem(int itemId, boolean isMedia) {
+        for (int userId : sets(isMedia).keySet()) {
+            remove(userId, itemId, isMedia);
+        }
+    }
+
+    private int[] set(int userId, boolean isMedia) {
+        return sets(isMedia).getOrDefault(userId, EMPTY);
+    }
+
+    private Map<Integer, int[]> sets(boolean isMedia) {
+        return isMedia ? media : characters;
+    }
+
+    private static Map<Integer, int[]> sorted(Map<Integer, int[]> byUser) {
+        Map<Integer, int[]> sorted = new ConcurrentHashMap<>();
+        byUser.forEach((userId, ids) -> {
+            int[] copy = ids.clone();
+            Arrays.sort(copy);
+            int[] distinct = Arrays.stream(copy).distinct().toArray();
+            if (distinct.length > 0) {
+                sorted.put(userId, distinct);
+            }
+        });
+        return sorted;
+    }
+}
@@ -0,0 +1,113 @@
+package index;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.IntFunction;
+
+// Keeps the most favorited ids in a min-heap bounded to capacity, ranked by count and then
+// by lower id. Only ranked ids are held in memory; the counter tables stay the source of
+// truth. Changed ids are re-offered with their stored count, and when a ranked id drops
+// while unranked ids may exist, the board is reloaded from the table's top rows.
+public class FavoriteLeaderboard {
+    private final int capacity;
+    private final IntFunction<Map<Integer, Integer>> loader;
+    private final Map<Integer, Integer> counts = new HashMap<>();
+    private final Comparator<Integer> rank;
+    private final PriorityQueue<Integer> heap;
+    // True while every id with a positive count is ranked.
+    private boolean complete;
+    private volatile int[] snapshot = new int[0];
+
+    private FavoriteLeaderboard(int capacity, IntFunction<Map<Integer, Integer>> loader) {
+        this.capacity = capacity;
+        this.loader = loader;
+        this.rank = Comparator.<Integer>comparingInt(counts::get).thenComparing(Comparator.reverseOrder());
+        this.heap = new PriorityQueue<>(capacity + 1, rank);
+    }
+
+    // The loader returns at most limit (id, count) pairs with the highest positive counts.
+    public static FavoriteLeaderboard load(int capacity, IntFunction<Map<Integer, Integer>> loader) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Leaderboard capacity must be positive");
+        }
+        FavoriteLeaderboard leaderboard = new FavoriteLeaderboard(capacity, loader);
+        leaderboard.reload();
+        return leaderboard;
+    }
+
+    public synchronized void update(int id, int count) {
+        Integer previous = counts.get(id);
+        if (previous != null) {
+            heap.remove(id);
+            counts.remove(id);
+            if (count < previous && !complete) {
+                reload();
+                return;
+            }
+            if (count > 0) {
+                counts.put(id, count);
+                heap.add(id);
+            }
+        } else if (count > 0) {
+            offer(id, count);
+        }
+        publish();
+    }
+
+    public void remove(int id) {
+        update(id, 0);
+    }
+
+    public int[] top(int limit) {
+        int[] current = snapshot;
+        int size = Math.min(Math.max(limit, 0), current.length);
+        int[] top = new int[size];
+        System.arraycopy(current, 0, top, 0, size);
+        return top;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private void offer(int id, int count) {
+        counts.put(id, count);
+        if (heap.size() < capacity) {
+            heap.add(id);
+            return;
+        }
+        if (rank.compare(id, heap.peek()) > 0) {
+            counts.remove(heap.poll());
+            heap.add(id);
+        } else {
+            counts.remove(id);
+        }
+        complete = false;
+    }
+
+    private void reload() {
+        Map<Integer, Integer> top = loader.apply(capacity);
+        heap.clear();
+        counts.clear();
+        top.forEach((id, count) -> {
+            if (count > 0) {
+                offer(id, count);
+            }
+        });
+        complete = top.size() < capacity;
+        publish();
+    }
+
+    private void publish() {
+        Integer[] ids = heap.toArray(new Integer[0]);
+        Arrays.sort(ids, rank.reversed());
+        int[] top = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            top[i] = ids[i];
+        }
+        snapshot = top;
+    }
+}
@@ -0,0 +1,36 @@
+package index;
+
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+// Loads an index on first use and lets writers swap in patched copies afterwards. Updates
+// before the first load are dropped, since the load will read those rows anyway.
+public class LazyIndex<T> {
+    private final Supplier<T> loader;
+    private volatile T index;
+
+    public LazyIndex(Supplier<T> loader) {
+        this.loader = loader;
+    }
+
+    public T get() {
+        T current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = loader.get();
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public synchronized void update(UnaryOperator<T> update) {
+        T current = index;
+        if (current != null) {
+            index = update.apply(current);
+        }
+    }
+}
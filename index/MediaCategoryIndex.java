@@ -0,0 +1,135 @@
+package index;
+
+import component.MediaGenre;
+import component.MediaType;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+// One bitset of row positions per media type and per genre. Selecting several values of the
+// same category ORs their bitsets; combining categories ANDs the results. Deleted rows keep
+// their position but drop out of the live set until the next full load.
+public class MediaCategoryIndex {
+    private final int[] ids;
+    private final BitSet live;
+    private final BitSet[] byType;
+    private final BitSet[] byGenre;
+
+    private MediaCategoryIndex(int[] ids, BitSet live, BitSet[] byType, BitSet[] byGenre) {
+        this.ids = ids;
+        this.live = live;
+        this.byType = byType;
+        this.byGenre = byGenre;
+    }
+
+    public static MediaCategoryIndex build(int[] ids, MediaType[] types, MediaGenre[] genres) {
+        BitSet[] byType = new BitSet[MediaType.values().length];
+        BitSet[] byGenre = new BitSet[MediaGenre.values().length];
+        for (int i = 0; i < byType.length; i++) byType[i] = new BitSet(ids.length);
+        for (int i = 0; i < byGenre.length; i++) byGenre[i] = new BitSet(ids.length);
+
+        for (int position = 0; position < ids.length; position++) {
+            byType[types[position].ordinal()].set(position);
+            byGenre[genres[position].ordinal()].set(position);
+        }
+        BitSet live = new BitSet(ids.length);
+        live.set(0, ids.length);
+        return new MediaCategoryIndex(ids.clone(), live, byType, byGenre);
+    }
+
+    // Copies rather than mutates, so readers holding the old index keep a consistent view.
+    public MediaCategoryIndex with(int id, MediaType type, MediaGenre genre) {
+        return withAll(new int[] {id}, new MediaType[] {type}, new MediaGenre[] {genre});
+    }
+
+    // Appends a whole batch behind one copy of the bitsets.
+    public MediaCategoryIndex withAll(int[] newIds, MediaType[] types, MediaGenre[] genres) {
+        int start = ids.length;
+        int[] allIds = Arrays.copyOf(ids, start + newIds.length);
+        BitSet newLive = (BitSet) live.clone();
+        BitSet[] newByType = copy(byType);
+        BitSet[] newByGenre = copy(byGenre);
+        for (int i = 0; i < newIds.length; i++) {
+            int position = start + i;
+            allIds[position] = newIds[i];
+            newLive.set(position);
+            newByType[types[i].ordinal()].set(position);
+            newByGenre[genres[i].ordinal()].set(position);
+        }
+        return new MediaCategoryIndex(allIds, newLive, newByType, newByGenre);
+    }
+
+    public MediaCategoryIndex without(int id) {
+        for (int position = live.nextSetBit(0); position >= 0; position = live.nextSetBit(position + 1)) {
+            if (ids[position] == id) {
+                BitSet newLive = (BitSet) live.clone();
+                newLive.clear(position);
+                return new MediaCategoryIndex(ids, newLive, byType, byGenre);
+            }
+        }
+        return this;
+    }
+
+    // Empty or null sets leave that category unrestricted.
+    public BitSet matching(Set<MediaType> types, Set<MediaGenre> genres) {
+        BitSet result = (BitSet) live.clone();
+        if (types != null && !types.isEmpty()) {
+            BitSet anyType = new BitSet(ids.length);
+            types.forEach(type -> anyType.or(byType[type.ordinal()]));
+            result.and(anyType);
+        }
+        if (genres != null && !genres.isEmpty()) {
+            BitSet anyGenre = new BitSet(ids.length);
+            genres.forEach(genre -> anyGenre.or(byGenre[genre.ordinal()]));
+            result.and(anyGenre);
+        }
+        return result;
+    }
+
+    public int[] idsMatching(Set<MediaType> types, Set<MediaGenre> genres) {
+        return matching(types, genres).stream().map(position -> ids[position]).toArray();
+    }
+
+    public int countMatching(Set<MediaType> types, Set<MediaGenre> genres) {
+        return matching(types, genres).cardinality();
+    }
+
+    public Map<MediaType, Integer> countByType(Set<MediaGenre> genres) {
+        BitSet restriction = matching(null, genres);
+        Map<MediaType, Integer> counts = new EnumMap<>(MediaType.class);
+        for (MediaType type : MediaType.values()) {
+            counts.put(type, intersectionSize(byType[type.ordinal()], restriction));
+        }
+        return counts;
+    }
+
+    public Map<MediaGenre, Integer> countByGenre(Set<MediaType> types) {
+        BitSet restriction = matching(types, null);
+        Map<MediaGenre, Integer> counts = new EnumMap<>(MediaGenre.class);
+        for (MediaGenre genre : MediaGenre.values()) {
+            counts.put(genre, intersectionSize(byGenre[genre.ordinal()], restriction));
+        }
+        return counts;
+    }
+
+    public int size() {
+        return live.cardinality();
+    }
+
+    private static BitSet[] copy(BitSet[] sets) {
+        BitSet[] copy = new BitSet[sets.length];
+        for (int i = 0; i < sets.length; i++) {
+            copy[i] = (BitSet) sets[i].clone();
+        }
+        return copy;
+    }
+
+    private static int intersectionSize(BitSet a, BitSet b) {
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy.cardinality();
+    }
+}
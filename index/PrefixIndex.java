@@ -0,0 +1,144 @@
+package index;
+
+import component.Suggestion;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Case-insensitive prefix index over media titles and character names, kept as one array of
+// entries sorted by normalized text. Every entry sharing a prefix sits in one contiguous run,
+// so a lookup binary-searches the start of the run and reads at most K entries from there.
+// Memory is one key and one reference per title; inserts and removals shift the array tail.
+// Results are ranked by that same order: alphabetical by normalized text, so an exact match
+// comes before its longer extensions, with media ahead of characters and then lower id on ties.
+// Truncating to K keeps the first K of that order; no popularity ranking is applied.
+public class PrefixIndex {
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparing((Entry e) -> e.key)
+            .thenComparing(e -> !e.suggestion.isMedia())
+            .thenComparingInt(e -> e.suggestion.getId());
+
+    private final int maxSuggestions;
+    private Entry[] entries;
+    private int size;
+    private final Map<Integer, Entry> media = new HashMap<>();
+    private final Map<Integer, Entry> characters = new HashMap<>();
+
+    private PrefixIndex(int maxSuggestions, Entry[] entries) {
+        this.maxSuggestions = maxSuggestions;
+        this.entries = entries;
+        this.size = entries.length;
+    }
+
+    public static PrefixIndex build(int maxSuggestions, List<Suggestion> suggestions) {
+        if (maxSuggestions < 1) {
+            throw new IllegalArgumentException("Suggestion count must be positive");
+        }
+        Map<Integer, Entry> media = new HashMap<>();
+        Map<Integer, Entry> characters = new HashMap<>();
+        for (Suggestion suggestion : suggestions) {
+            (suggestion.isMedia() ? media : characters).put(suggestion.getId(), new Entry(suggestion));
+        }
+        Entry[] sorted = new Entry[media.size() + characters.size()];
+        int at = 0;
+        for (Entry entry : media.values()) sorted[at++] = entry;
+        for (Entry entry : characters.values()) sorted[at++] = entry;
+        Arrays.sort(sorted, ORDER);
+
+        PrefixIndex index = new PrefixIndex(maxSuggestions, sorted);
+        index.media.putAll(media);
+        index.characters.putAll(characters);
+        return index;
+    }
+
+    public synchronized List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        int count = Math.min(limit, maxSuggestions);
+        Suggestion[] found = new Suggestion[Math.max(count, 0)];
+        int taken = 0;
+        for (int i = firstAtLeast(key); i < size && taken < count && entries[i].key.startsWith(key); i++) {
+            found[taken++] = entries[i].suggestion;
+        }
+        return List.of(Arrays.copyOf(found, taken));
+    }
+
+    public synchronized void add(Suggestion suggestion) {
+        remove(suggestion.getId(), suggestion.isMedia());
+        Entry entry = new Entry(suggestion);
+        (suggestion.isMedia() ? media : characters).put(suggestion.getId(), entry);
+
+        int at = -Arrays.binarySearch(entries, 0, size, entry, ORDER) - 1;
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, Math.max(16, size * 2));
+        }
+        System.arraycopy(entries, at, entries, at + 1, size - at);
+        entries[at] = entry;
+        size++;
+    }
+
+    // Sorts the batch and merges it in one pass instead of shifting the array once per entry.
+    public synchronized void addAll(List<Suggestion> suggestions) {
+        Map<String, Entry> batch = new HashMap<>();
+        for (Suggestion suggestion : suggestions) {
+            remove(suggestion.getId(), suggestion.isMedia());
+            batch.put(suggestion.getId() + (suggestion.isMedia() ? "m" : "c"), new Entry(suggestion));
+        }
+        Entry[] added = batch.values().toArray(new Entry[0]);
+        Arrays.sort(added, ORDER);
+        for (Entry entry : added) {
+            (entry.suggestion.isMedia() ? media : characters).put(entry.suggestion.getId(), entry);
+        }
+
+        Entry[] merged = new Entry[Math.max(16, size + added.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < size && j < added.length) {
+            merged[k++] = ORDER.compare(entries[i], added[j]) <= 0 ? entries[i++] : added[j++];
+        }
+        while (i < size) merged[k++] = entries[i++];
+        while (j < added.length) merged[k++] = added[j++];
+        entries = merged;
+        size = k;
+    }
+
+    public synchronized void remove(int id, boolean isMedia) {
+        Entry entry = (isMedia ? media : characters).remove(id);
+        if (entry == null) return;
+
+        int at = Arrays.binarySearch(entries, 0, size, entry, ORDER);
+        if (at < 0) return;
+        System.arraycopy(entries, at + 1, entries, at, size - at - 1);
+        entries[--size] = null;
+    }
+
+    private int firstAtLeast(String key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid].key.compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class Entry {
+        private final String key;
+        private final Suggestion suggestion;
+
+        private Entry(Suggestion suggestion) {
+            this.key = normalize(suggestion.getText());
+            this.suggestion = suggestion;
+        }
+    }
+}
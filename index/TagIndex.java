@@ -0,0 +1,146 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Inverted index from tag to a sorted, duplicate-free array of ids.
+public class TagIndex {
+    private static final int[] EMPTY = new int[0];
+
+    private final Map<String, int[]> postings;
+
+    private TagIndex(Map<String, int[]> postings) {
+        this.postings = postings;
+    }
+
+    public static TagIndex build(Map<String, int[]> postings) {
+        Map<String, int[]> sorted = new HashMap<>();
+        postings.forEach((tag, ids) -> {
+            int[] copy = ids.clone();
+            Arrays.sort(copy);
+            sorted.put(tag, Arrays.stream(copy).distinct().toArray());
+        });
+        return new TagIndex(sorted);
+    }
+
+    public int[] ids(String tag) {
+        return postings.getOrDefault(tag, EMPTY).clone();
+    }
+
+    public int count(String tag) {
+        return postings.getOrDefault(tag, EMPTY).length;
+    }
+
+    public Set<String> tags() {
+        return postings.keySet();
+    }
+
+    // Copies the map and only the posting lists a change touches; other lists are shared.
+    public TagIndex with(int id, Collection<String> tags) {
+        return withAll(new int[] {id}, List.of(tags));
+    }
+
+    // Groups the batch by tag first, so each touched posting list is merged once per batch.
+    public TagIndex withAll(int[] ids, List<? extends Collection<String>> tagsById) {
+        Map<String, List<Integer>> added = new HashMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            for (String tag : tagsById.get(i)) {
+                added.computeIfAbsent(tag, k -> new ArrayList<>()).add(ids[i]);
+            }
+        }
+        Map<String, int[]> updated = new HashMap<>(postings);
+        added.forEach((tag, newIds) -> {
+            int[] sorted = newIds.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+            updated.put(tag, union(updated.getOrDefault(tag, EMPTY), sorted));
+        });
+        return new TagIndex(updated);
+    }
+
+    public TagIndex without(int id) {
+        Map<String, int[]> updated = new HashMap<>(postings);
+        postings.forEach((tag, ids) -> {
+            int at = Arrays.binarySearch(ids, id);
+            if (at < 0) return;
+            if (ids.length == 1) {
+                updated.remove(tag);
+                return;
+            }
+            int[] shrunk = new int[ids.length - 1];
+            System.arraycopy(ids, 0, shrunk, 0, at);
+            System.arraycopy(ids, at + 1, shrunk, at, ids.length - at - 1);
+            updated.put(tag, shrunk);
+        });
+        return new TagIndex(updated);
+    }
+
+    // Intersects the shortest lists first; each step probes the larger list with binary search
+    // so the cost is bounded by the smallest posting list rather than the catalog size.
+    public int[] allOf(Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return EMPTY;
+        }
+        List<int[]> lists = new ArrayList<>();
+        for (String tag : tags) {
+            int[] ids = postings.get(tag);
+            if (ids == null) {
+                return EMPTY;
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(ids -> ids.length));
+
+        int[] result = lists.get(0).clone();
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            int[] other = lists.get(i);
+            int kept = 0;
+            int from = 0;
+            for (int j = 0; j < size; j++) {
+                int found = Arrays.binarySearch(other, from, other.length, result[j]);
+                if (found >= 0) {
+                    result[kept++] = result[j];
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+            size = kept;
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    public int[] anyOf(Collection<String> tags) {
+        int[] result = EMPTY;
+        for (String tag : tags) {
+            int[] ids = postings.get(tag);
+            if (ids != null) {
+                result = union(result, ids);
+            }
+        }
+        return result;
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] merged = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                merged[k++] = a[i++];
+            } else if (a[i] > b[j]) {
+                merged[k++] = b[j++];
+            } else {
+                merged[k++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) merged[k++] = a[i++];
+        while (j < b.length) merged[k++] = b[j++];
+        return Arrays.copyOf(merged, k);
+    }
+}
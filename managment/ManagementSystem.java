@@ -4,25 +4,39 @@ import builder.CharacterBuilder;
 import component.*;
 import component.Character;
 import filter.FilterStrategy;
+import importer.CatalogImporter;
+import importer.ImportResult;
+import repository.Page;
+import repository.PageRequest;
 import service.CharacterService;
 import service.FavoriteService;
 import service.MediaService;
+import service.SearchService;
 import service.UserService;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class ManagementSystem {
     private MediaService mediaService;
     private CharacterService characterService;
     private UserService userService;
     private FavoriteService favoriteService;
+    private SearchService searchService;
 
     public ManagementSystem(MediaService mediaService, CharacterService characterService,
-                                 UserService userService, FavoriteService favoriteService) {
+                                 UserService userService, FavoriteService favoriteService,
+                                 SearchService searchService) {
         this.mediaService = mediaService;
         this.characterService = characterService;
         this.userService = userService;
         this.favoriteService = favoriteService;
+        this.searchService = searchService;
     }
 
     // Media operations
@@ -30,16 +44,37 @@ public class ManagementSystem {
         return mediaService.getFilteredMedia(filter);
     }
 
+    public Page<Media> browseMediaPage(FilterStrategy<Media> filter, PageRequest request) {
+        return mediaService.getMediaPage(filter, request);
+    }
+
+    public Page<MediaSummary> browseMediaSummaries(FilterStrategy<Media> filter, PageRequest request) {
+        return mediaService.getMediaSummaryPage(filter, request);
+    }
+
+    public Stream<MediaSummary> streamMediaSummaries() {
+        return mediaService.streamMediaSummaries();
+    }
+
+    public Stream<Media> streamMedia(FilterStrategy<Media> filter) {
+        return mediaService.streamFilteredMedia(filter);
+    }
+
     public Media viewMediaDetails(int mediaId) {
         return mediaService.getMediaById(mediaId);
     }
 
-    public void createMedia(String title, String description, String releaseDate, String type, String genre, String hashtags, int userId) {
+    public MediaDetails getMediaDetails(int mediaId) {
+        return mediaService.getMediaDetails(mediaId);
+    }
+
+    public void createMedia(String title, String description, String releaseDate, MediaType type, MediaGenre genre, String hashtags, int userId) {
         mediaService.createMedia(title, description, releaseDate, type, genre, hashtags, userId);
     }
 
     public void deleteMedia(int id) {
         mediaService.deleteMedia(id);
+        favoriteService.forgetItem(id, true);
     }
 
     // Character operations
@@ -47,6 +82,50 @@ public class ManagementSystem {
         return characterService.getFilteredCharacters(filter);
     }
 
+    public Page<Character> browseCharactersPage(FilterStrategy<Character> filter, PageRequest request) {
+        return characterService.getCharacterPage(filter, request);
+    }
+
+    public Page<CharacterSummary> browseCharacterSummaries(FilterStrategy<Character> filter, PageRequest request) {
+        return characterService.getCharacterSummaryPage(filter, request);
+    }
+
+    public Stream<CharacterSummary> streamCharacterSummaries() {
+        return characterService.streamCharacterSummaries();
+    }
+
+    public Stream<Character> streamCharacters(FilterStrategy<Character> filter) {
+        return characterService.streamFilteredCharacters(filter);
+    }
+
+    public ImportResult importCatalog(String path, int chunkSize, int userId) throws IOException {
+        return new CatalogImporter(mediaService, characterService, chunkSize).importFile(Path.of(path), userId);
+    }
+
+    public int countMedia(Set<MediaType> types, Set<MediaGenre> genres) {
+        return mediaService.countMedia(types, genres);
+    }
+
+    public Map<MediaType, Integer> countMediaByType(Set<MediaGenre> genres) {
+        return mediaService.countMediaByType(genres);
+    }
+
+    public Map<MediaGenre, Integer> countMediaByGenre(Set<MediaType> types) {
+        return mediaService.countMediaByGenre(types);
+    }
+
+    public int countMediaWithTags(List<String> tags, boolean matchAll) {
+        return mediaService.countMediaWithTags(tags, matchAll);
+    }
+
+    public int countCharactersWithTags(List<String> tags, boolean matchAll) {
+        return characterService.countCharactersWithTags(tags, matchAll);
+    }
+
+    public int countCharactersByAge(Integer minAge, Integer maxAge) {
+        return characterService.countCharactersByAge(minAge, maxAge);
+    }
+
     public Character viewCharacterDetails(int characterId) {
         return characterService.getCharacterById(characterId);
     }
@@ -57,6 +136,7 @@ public class ManagementSystem {
 
     public void deleteCharacter(int id) {
         characterService.deleteCharacter(id);
+        favoriteService.forgetItem(id, false);
     }
 
     // User operations
@@ -64,6 +144,10 @@ public class ManagementSystem {
         return userService.getAllUsersExcept(-1);
     }
 
+    public Page<User> getUsersPage(PageRequest request) {
+        return userService.getUserPageExcept(-1, request);
+    }
+
     public User login(String username, String password) {
         return userService.login(username, password);
     }
@@ -74,12 +158,17 @@ public class ManagementSystem {
 
     public void deleteUser(int userId) {
         userService.deleteUser(userId);
+        favoriteService.forgetUser(userId);
     }
 
     public boolean isUserAdmin(int userId) {
         return userService.isAdmin(userId);
     }
 
+    public ProfileStats getProfileStats(int userId) {
+        return userService.getProfileStats(userId);
+    }
+
     public int countUserFavoriteMedia(int userId) {
         return favoriteService.countFavoriteMedia(userId);
     }
@@ -97,12 +186,68 @@ public class ManagementSystem {
         return favoriteService.getFavoriteCharacters(userId);
     }
 
-    public void addToFavorites(int userId, int itemId, boolean isMedia) {
-        favoriteService.addFavorite(userId, itemId, isMedia);
+    public List<Media> getFavoriteMedia(int userId, int limit, int offset) {
+        return favoriteService.getFavoriteMedia(userId, limit, offset);
+    }
+
+    public List<Character> getFavoriteCharacters(int userId, int limit, int offset) {
+        return favoriteService.getFavoriteCharacters(userId, limit, offset);
+    }
+
+    public boolean addToFavorites(int userId, int itemId, boolean isMedia) {
+        return favoriteService.addFavorite(userId, itemId, isMedia);
+    }
+
+    public boolean removeFromFavorites(int userId, int itemId, boolean isMedia) {
+        return favoriteService.removeFavorite(userId, itemId, isMedia);
+    }
+
+    public List<Integer> addAllToFavorites(int userId, Collection<Integer> itemIds, boolean isMedia) {
+        return favoriteService.addFavorites(userId, itemIds, isMedia);
     }
 
-    public void removeFromFavorites(int userId, int itemId, boolean isMedia) {
-        favoriteService.removeFavorite(userId, itemId, isMedia);
+    public List<Integer> removeAllFromFavorites(int userId, Collection<Integer> itemIds, boolean isMedia) {
+        return favoriteService.removeFavorites(userId, itemIds, isMedia);
+    }
+
+    public int getFavoriteCount(int itemId, boolean isMedia) {
+        return favoriteService.countFavoritesOf(itemId, isMedia);
+    }
+
+    public List<Media> getMostFavoritedMedia(int limit) {
+        return mediaService.getMediaByIds(favoriteService.getMostFavorited(limit, true));
+    }
+
+    public List<Character> getMostFavoritedCharacters(int limit) {
+        return characterService.getCharactersByIds(favoriteService.getMostFavorited(limit, false));
+    }
+
+    public List<Media> getMediaRecommendations(int mediaId, int limit) {
+        return mediaService.getMediaByIds(favoriteService.getRecommendations(mediaId, limit, true));
+    }
+
+    public List<Character> getCharacterRecommendations(int characterId, int limit) {
+        return characterService.getCharactersByIds(favoriteService.getRecommendations(characterId, limit, false));
+    }
+
+    public boolean isFavorite(int userId, int itemId, boolean isMedia) {
+        return favoriteService.isFavorite(userId, itemId, isMedia);
+    }
+
+    public int countFavoritesInCommon(int userId, int otherUserId, boolean isMedia) {
+        return favoriteService.getFavoritesInCommon(userId, otherUserId, isMedia).length;
+    }
+
+    public List<Media> getFavoriteMediaInCommon(int userId, int otherUserId) {
+        return mediaService.getMediaByIds(favoriteService.getFavoritesInCommon(userId, otherUserId, true));
+    }
+
+    public List<Character> getFavoriteCharactersInCommon(int userId, int otherUserId) {
+        return characterService.getCharactersByIds(favoriteService.getFavoritesInCommon(userId, otherUserId, false));
+    }
+
+    public Set<Integer> getFavoritedIds(int userId, Collection<Integer> itemIds, boolean isMedia) {
+        return favoriteService.getFavoritedIds(userId, itemIds, isMedia);
     }
 
     // Profile information
@@ -121,4 +266,17 @@ public class ManagementSystem {
     public int getMediaAuthorId(int mediaId) {
         return mediaService.getAuthorId(mediaId);
     }
+
+    // Search
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return searchService.suggest(prefix, limit);
+    }
+
+    public List<Media> searchMedia(String query, int limit) {
+        return searchService.searchMedia(query, limit);
+    }
+
+    public List<Character> searchCharacters(String query, int limit) {
+        return searchService.searchCharacters(query, limit);
+    }
 }
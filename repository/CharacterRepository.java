@@ -2,14 +2,36 @@ package repository;
 
 import builder.CharacterBuilder;
 import component.Character;
+import component.CharacterSummary;
+import filter.SqlPredicate;
+import index.AgeIndex;
+import index.TagIndex;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface CharacterRepository {
     List<Character> findAll();
+    List<Character> findWhere(SqlPredicate where);
+    // where may be null; pages are ordered by (name, id).
+    Page<Character> findPage(SqlPredicate where, PageRequest request);
+    // Summaries read only id, name and the owning media's id and title.
+    Page<CharacterSummary> findSummaryPage(SqlPredicate where, PageRequest request);
+    Stream<CharacterSummary> streamSummaries();
     List<Character> findByMediaId(int mediaId);
+    Map<Integer, List<Character>> findByMediaIds(Collection<Integer> mediaIds);
     List<Character> findByUserId(int userId);
+    // Streams map rows lazily and must be closed.
+    Stream<Character> streamAll();
+    Stream<Character> streamWhere(SqlPredicate where);
+    Stream<Character> streamByUserId(int userId);
     Character findById(int id);
-    void save(CharacterBuilder builder);
+    List<Character> findByIds(Collection<Integer> ids);
+    AgeIndex loadAgeIndex();
+    TagIndex loadTagIndex();
+    int save(CharacterBuilder builder);
+    int[] saveAll(List<CharacterBuilder> characters);
     void delete(int id);
 }
@@ -3,13 +3,32 @@ package repository;
 import component.Media;
 import component.Character;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface FavoriteRepository {
     List<Media> findFavoriteMedia(int userId);
     List<Character> findFavoriteCharacters(int userId);
-    void addFavorite(int userId, int itemId, boolean isMedia);
-    void removeFavorite(int userId, int itemId, boolean isMedia);
+    // A negative limit returns every row after offset.
+    List<Media> findFavoriteMedia(int userId, int limit, int offset);
+    List<Character> findFavoriteCharacters(int userId, int limit, int offset);
+    // Adds and removes report whether a row changed; the batch variants run in one
+    // transaction and return the ids that actually changed.
+    boolean addFavorite(int userId, int itemId, boolean isMedia);
+    boolean removeFavorite(int userId, int itemId, boolean isMedia);
+    List<Integer> addFavorites(int userId, Collection<Integer> itemIds, boolean isMedia);
+    List<Integer> removeFavorites(int userId, Collection<Integer> itemIds, boolean isMedia);
+    Set<Integer> findFavoritedIds(int userId, Collection<Integer> itemIds, boolean isMedia);
+    // Counts are read from trigger-maintained counter tables rather than by scanning favorites.
     int countFavoriteMedia(int userId);
     int countFavoriteCharacters(int userId);
+    int countFavoritesOf(int itemId, boolean isMedia);
+    // Items without a positive count are left out of both maps.
+    Map<Integer, Integer> loadFavoriteCounts(Collection<Integer> itemIds, boolean isMedia);
+    // At most limit items, most favorited first and then by lower id.
+    Map<Integer, Integer> loadTopFavorited(int limit, boolean isMedia);
+    // Favorited ids of existing items per user, each array sorted ascending.
+    Map<Integer, int[]> loadFavoriteSets(boolean isMedia);
 }
@@ -1,14 +1,45 @@
 package repository;
 
+import builder.MediaBuilder;
 import component.Media;
+import component.MediaDetails;
+import component.MediaGenre;
+import component.MediaSummary;
+import component.MediaType;
+import filter.SqlPredicate;
+import index.MediaCategoryIndex;
+import index.TagIndex;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface MediaRepository {
     List<Media> findAll();
+    List<Media> findWhere(SqlPredicate where);
+    // where may be null; pages are ordered by (title, id).
+    Page<Media> findPage(SqlPredicate where, PageRequest request);
+    // Summaries read only id, title, type and a character count.
+    Page<MediaSummary> findSummaryPage(SqlPredicate where, PageRequest request);
+    Stream<MediaSummary> streamSummaries();
     List<Media> findByUserId(int userId);
+    // Streams map rows lazily and must be closed.
+    Stream<Media> streamAll();
+    Stream<Media> streamWhere(SqlPredicate where);
+    Stream<Media> streamByUserId(int userId);
     Media findById(int id);
-    void save(String title, String description, String releaseDate, String type, String genre, String hashtags, int userId);
+    // One statement for the whole id set; rows come back in no particular order.
+    List<Media> findByIds(Collection<Integer> ids);
+    // The subset of ids that still have a media row.
+    Set<Integer> findExistingIds(Collection<Integer> ids);
+    // Media row, author and favorite count in one statement; characters are read on the same connection.
+    MediaDetails findDetails(int id);
+    int save(String title, String description, String releaseDate, MediaType type, MediaGenre genre, String hashtags, int userId);
+    int[] saveAll(List<MediaBuilder> media);
     void delete(int id);
     int getAuthorId(int mediaId);
     String getAuthorName(int mediaId);
+    MediaCategoryIndex loadCategoryIndex();
+    TagIndex loadTagIndex();
 }
@@ -0,0 +1,56 @@
+package repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+public class Page<T> {
+    private final List<T> items;
+    private final int size;
+    private final boolean hasNext;
+    private final boolean hasPrevious;
+    private final String firstKey;
+    private final int firstId;
+    private final String lastKey;
+    private final int lastId;
+
+    public Page(List<T> items, int size, boolean hasNext, boolean hasPrevious,
+                String firstKey, int firstId, String lastKey, int lastId) {
+        this.items = items;
+        this.size = size;
+        this.hasNext = hasNext;
+        this.hasPrevious = hasPrevious;
+        this.firstKey = firstKey;
+        this.firstId = firstId;
+        this.lastKey = lastKey;
+        this.lastId = lastId;
+    }
+
+    public static <T> Page<T> empty(int size) {
+        return new Page<>(new ArrayList<>(), size, false, false, null, 0, null, 0);
+    }
+
+    // Replaces the items but keeps the cursors, which refer to the rows that were read.
+    public Page<T> withItems(UnaryOperator<List<T>> operator) {
+        return new Page<>(operator.apply(items), size, hasNext, hasPrevious, firstKey, firstId, lastKey, lastId);
+    }
+
+    public <R> Page<R> map(Function<T, R> mapper) {
+        List<R> mapped = new ArrayList<>(items.size());
+        items.forEach(item -> mapped.add(mapper.apply(item)));
+        return new Page<>(mapped, size, hasNext, hasPrevious, firstKey, firstId, lastKey, lastId);
+    }
+
+    public PageRequest nextRequest() {
+        return hasNext ? PageRequest.after(lastKey, lastId, size) : null;
+    }
+
+    public PageRequest previousRequest() {
+        return hasPrevious ? PageRequest.before(firstKey, firstId, size) : null;
+    }
+
+    public List<T> getItems() { return items; }
+    public boolean hasNext() { return hasNext; }
+    public boolean hasPrevious() { return hasPrevious; }
+}
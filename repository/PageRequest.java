@@ -0,0 +1,41 @@
+package repository;
+
+// Keyset position in a listing ordered by (sort key, id). A request without a cursor
+// starts at the beginning; otherwise it reads the rows strictly after or before it.
+public class PageRequest {
+    private final int size;
+    private final String key;
+    private final int id;
+    private final boolean backward;
+
+    private PageRequest(int size, String key, int id, boolean backward) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.size = size;
+        this.key = key;
+        this.id = id;
+        this.backward = backward;
+    }
+
+    public static PageRequest first(int size) {
+        return new PageRequest(size, null, 0, false);
+    }
+
+    public static PageRequest after(String key, int id, int size) {
+        return new PageRequest(size, key, id, false);
+    }
+
+    public static PageRequest before(String key, int id, int size) {
+        return new PageRequest(size, key, id, true);
+    }
+
+    public int getSize() { return size; }
+    public String getKey() { return key; }
+    public int getId() { return id; }
+    public boolean isBackward() { return backward; }
+
+    public boolean hasCursor() {
+        return key != null;
+    }
+}
@@ -0,0 +1,14 @@
+package repository;
+
+import component.Character;
+import component.Media;
+import component.Suggestion;
+
+import java.util.List;
+
+public interface SearchRepository {
+    List<Media> searchMedia(String matchQuery, int limit);
+    List<Character> searchCharacters(String matchQuery, int limit);
+    // Every media title and character name, for building the autocomplete index.
+    List<Suggestion> loadSuggestions();
+}
@@ -1,5 +1,6 @@
 package repository;
 
+import component.ProfileStats;
 import component.User;
 import java.util.List;
 
@@ -7,6 +8,8 @@ public interface UserRepository {
     User findByCredentials(String username, String password);
     User create(String username, String email, String password);
     List<User> findAllExcept(int userId);
+    Page<User> findPageExcept(int userId, PageRequest request);
     void delete(int userId);
     boolean isAdmin(int userId);
+    ProfileStats loadProfileStats(int userId);
 }
@@ -0,0 +1,34 @@
+package repository.cache;
+
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+    private final int maxSize;
+
+    public CacheStats(long hits, long misses, long evictions, int size, int maxSize) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+        this.maxSize = maxSize;
+    }
+
+    public double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getEvictions() { return evictions; }
+    public int getSize() { return size; }
+    public int getMaxSize() { return maxSize; }
+
+    @Override
+    public String toString() {
+        return String.format("hits: %d, misses: %d (%.0f%% hit rate), evictions: %d, size: %d/%d",
+                hits, misses, getHitRate() * 100, evictions, size, maxSize);
+    }
+}
@@ -0,0 +1,140 @@
+package repository.cache;
+
+import builder.CharacterBuilder;
+import component.Character;
+import component.CharacterSummary;
+import filter.SqlPredicate;
+import index.AgeIndex;
+import index.TagIndex;
+import repository.CharacterRepository;
+import repository.Page;
+import repository.PageRequest;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public class CachingCharacterRepository implements CharacterRepository {
+    private final CharacterRepository delegate;
+    private final CachingMediaRepository mediaCache;
+    private final LruCache<Integer, Character> byId;
+
+    public CachingCharacterRepository(CharacterRepository delegate, CachingMediaRepository mediaCache,
+                                      int maxSize, long ttlMillis) {
+        this.delegate = delegate;
+        this.mediaCache = mediaCache;
+        this.byId = new LruCache<>(maxSize, ttlMillis);
+        mediaCache.addDeleteListener(mediaId -> byId.invalidateIf(c -> c.getMediaId() == mediaId));
+    }
+
+    @Override
+    public Character findById(int id) {
+        Character character = byId.get(id);
+        if (character == null) {
+            character = delegate.findById(id);
+            if (character != null) {
+                byId.put(id, character);
+            }
+        }
+        return character;
+    }
+
+    @Override
+    public int save(CharacterBuilder builder) {
+        int id = delegate.save(builder);
+        mediaCache.invalidate(builder.getMediaId());
+        return id;
+    }
+
+    @Override
+    public int[] saveAll(List<CharacterBuilder> characters) {
+        int[] ids = delegate.saveAll(characters);
+        characters.stream().mapToInt(CharacterBuilder::getMediaId).distinct().forEach(mediaCache::invalidate);
+        return ids;
+    }
+
+    @Override
+    public void delete(int id) {
+        Character character = findById(id);
+        delegate.delete(id);
+        byId.invalidate(id);
+        if (character != null) {
+            mediaCache.invalidate(character.getMediaId());
+        }
+    }
+
+    public CacheStats getStats() {
+        return byId.getStats();
+    }
+
+    @Override
+    public List<Character> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Character> findWhere(SqlPredicate where) {
+        return delegate.findWhere(where);
+    }
+
+    @Override
+    public List<Character> findByMediaId(int mediaId) {
+        return delegate.findByMediaId(mediaId);
+    }
+
+    @Override
+    public Map<Integer, List<Character>> findByMediaIds(Collection<Integer> mediaIds) {
+        return delegate.findByMediaIds(mediaIds);
+    }
+
+    @Override
+    public List<Character> findByUserId(int userId) {
+        return delegate.findByUserId(userId);
+    }
+
+    @Override
+    public List<Character> findByIds(Collection<Integer> ids) {
+        return delegate.findByIds(ids);
+    }
+
+    @Override
+    public AgeIndex loadAgeIndex() {
+        return delegate.loadAgeIndex();
+    }
+
+    @Override
+    public TagIndex loadTagIndex() {
+        return delegate.loadTagIndex();
+    }
+
+    @Override
+    public Stream<Character> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Character> streamWhere(SqlPredicate where) {
+        return delegate.streamWhere(where);
+    }
+
+    @Override
+    public Stream<Character> streamByUserId(int userId) {
+        return delegate.streamByUserId(userId);
+    }
+
+    @Override
+    public Page<Character> findPage(SqlPredicate where, PageRequest request) {
+        return delegate.findPage(where, request);
+    }
+
+    @Override
+    public Page<CharacterSummary> findSummaryPage(SqlPredicate where, PageRequest request) {
+        return delegate.findSummaryPage(where, request);
+    }
+
+    @Override
+    public Stream<CharacterSummary> streamSummaries() {
+        return delegate.streamSummaries();
+    }
+}
@@ -0,0 +1,185 @@
+package repository.cache;
+
+import builder.MediaBuilder;
+import component.Media;
+import component.MediaDetails;
+import component.MediaSummary;
+import component.MediaGenre;
+import component.MediaType;
+import filter.SqlPredicate;
+import index.MediaCategoryIndex;
+import index.TagIndex;
+import repository.MediaRepository;
+import repository.Page;
+import repository.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntConsumer;
+
+public class CachingMediaRepository implements MediaRepository {
+    private final MediaRepository delegate;
+    private final LruCache<Integer, Media> byId;
+    private final LruCache<Integer, MediaDetails> details;
+    private final List<IntConsumer> deleteListeners = new CopyOnWriteArrayList<>();
+
+    public CachingMediaRepository(MediaRepository delegate, int maxSize, long ttlMillis) {
+        this.delegate = delegate;
+        this.byId = new LruCache<>(maxSize, ttlMillis);
+        this.details = new LruCache<>(maxSize, ttlMillis);
+    }
+
+    @Override
+    public Media findById(int id) {
+        Media media = byId.get(id);
+        if (media == null) {
+            media = delegate.findById(id);
+            if (media != null) {
+                byId.put(id, media);
+            }
+        }
+        return media;
+    }
+
+    @Override
+    public List<Media> findByIds(Collection<Integer> ids) {
+        List<Media> found = new ArrayList<>();
+        List<Integer> missing = new ArrayList<>();
+        for (int id : ids) {
+            Media media = byId.get(id);
+            if (media != null) {
+                found.add(media);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Media media : delegate.findByIds(missing)) {
+                byId.put(media.getId(), media);
+                found.add(media);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public MediaDetails findDetails(int id) {
+        MediaDetails cached = details.get(id);
+        if (cached == null) {
+            cached = delegate.findDetails(id);
+            if (cached != null) {
+                details.put(id, cached);
+            }
+        }
+        return cached;
+    }
+
+    @Override
+    public int save(String title, String description, String releaseDate, MediaType type, MediaGenre genre, String hashtags, int userId) {
+        return delegate.save(title, description, releaseDate, type, genre, hashtags, userId);
+    }
+
+    @Override
+    public int[] saveAll(List<MediaBuilder> media) {
+        return delegate.saveAll(media);
+    }
+
+    @Override
+    public void delete(int id) {
+        delegate.delete(id);
+        byId.invalidate(id);
+        details.invalidate(id);
+        deleteListeners.forEach(listener -> listener.accept(id));
+    }
+
+    public void invalidate(int id) {
+        byId.invalidate(id);
+        details.invalidate(id);
+    }
+
+    public void invalidateDetails(int id) {
+        details.invalidate(id);
+    }
+
+    public void addDeleteListener(IntConsumer listener) {
+        deleteListeners.add(listener);
+    }
+
+    public CacheStats getStats() {
+        return byId.getStats();
+    }
+
+    @Override
+    public List<Media> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Media> findWhere(SqlPredicate where) {
+        return delegate.findWhere(where);
+    }
+
+    @Override
+    public List<Media> findByUserId(int userId) {
+        return delegate.findByUserId(userId);
+    }
+
+    @Override
+    public Set<Integer> findExistingIds(Collection<Integer> ids) {
+        return delegate.findExistingIds(ids);
+    }
+
+    @Override
+    public int getAuthorId(int mediaId) {
+        return delegate.getAuthorId(mediaId);
+    }
+
+    @Override
+    public String getAuthorName(int mediaId) {
+        return delegate.getAuthorName(mediaId);
+    }
+
+    @Override
+    public MediaCategoryIndex loadCategoryIndex() {
+        return delegate.loadCategoryIndex();
+    }
+
+    @Override
+    public TagIndex loadTagIndex() {
+        return delegate.loadTagIndex();
+    }
+
+    @Override
+    public Stream<Media> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Stream<Media> streamWhere(SqlPredicate where) {
+        return delegate.streamWhere(where);
+    }
+
+    @Override
+    public Stream<Media> streamByUserId(int userId) {
+        return delegate.streamByUserId(userId);
+    }
+
+    @Override
+    public Page<Media> findPage(SqlPredicate where, PageRequest request) {
+        return delegate.findPage(where, request);
+    }
+
+    @Override
+    public Page<MediaSummary> findSummaryPage(SqlPredicate where, PageRequest request) {
+        return delegate.findSummaryPage(where, request);
+    }
+
+    @Override
+    public Stream<MediaSummary> streamSummaries() {
+        return delegate.streamSummaries();
+    }
+}
@@ -1,33 +1,56 @@
 package repository.jdbc;
 
+import db.DatabaseConnectionProvider;
 import component.Character;
+import component.CharacterSummary;
+import component.DateFields;
+import filter.SqlPredicate;
+import index.AgeIndex;
+import index.TagIndex;
 import repository.CharacterRepository;
+import repository.Page;
+import repository.PageRequest;
 import builder.CharacterBuilder;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class JdbcCharacterRepository implements CharacterRepository {
-    private Connection conn;
+    public static final int DEFAULT_FETCH_SIZE = 500;
+    private static final int MAX_IN_PARAMS = 500;
+    private static final String SUMMARY_SELECT =
+            "SELECT id, name, media_id, (SELECT m.title FROM media m WHERE m.id = characters.media_id) AS media_title FROM characters";
 
-    public JdbcCharacterRepository(Connection conn) {
-        this.conn = conn;
+    private DatabaseConnectionProvider provider;
+    private int fetchSize;
+
+    public JdbcCharacterRepository(DatabaseConnectionProvider provider) {
+        this(provider, DEFAULT_FETCH_SIZE);
+    }
+
+    public JdbcCharacterRepository(DatabaseConnectionProvider provider, int fetchSize) {
+        this.provider = provider;
+        this.fetchSize = fetchSize;
     }
 
     @Override
     public List<Character> findAll() {
         List<Character> characters = new ArrayList<>();
-        try {
-            String sql = "SELECT * FROM characters ORDER BY name";
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
+        String sql = "SELECT * FROM characters ORDER BY name";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
-                characters.add(parseCharacter(rs));
+                characters.add(RowMappers.character(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -36,16 +59,66 @@ public class JdbcCharacterRepository implements CharacterRepository {
     }
 
     @Override
-    public List<Character> findByMediaId(int mediaId) {
+    public List<Character> findWhere(SqlPredicate where) {
         List<Character> characters = new ArrayList<>();
+        String sql = "SELECT * FROM characters WHERE " + where.getClause() + " ORDER BY name";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            where.bind(pstmt, 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    characters.add(RowMappers.character(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return characters;
+    }
+
+    @Override
+    public Page<Character> findPage(SqlPredicate where, PageRequest request) {
+        try (Connection conn = provider.getReadConnection()) {
+            return KeysetPages.fetch(conn, "SELECT * FROM characters", "name", where, request, RowMappers::character);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Page.empty(request.getSize());
+    }
+
+    @Override
+    public Page<CharacterSummary> findSummaryPage(SqlPredicate where, PageRequest request) {
+        try (Connection conn = provider.getReadConnection()) {
+            return KeysetPages.fetch(conn, SUMMARY_SELECT, "name", where, request, RowMappers::characterSummary);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Page.empty(request.getSize());
+    }
+
+    @Override
+    public Stream<CharacterSummary> streamSummaries() {
         try {
-            String sql = "SELECT * FROM characters WHERE media_id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+            return ResultSetStream.open(provider, SUMMARY_SELECT + " ORDER BY name", fetchSize, pstmt -> { }, RowMappers::characterSummary);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Stream.empty();
+    }
+
+    @Override
+    public List<Character> findByMediaId(int mediaId) {
+        List<Character> characters = new ArrayList<>();
+        String sql = "SELECT * FROM characters WHERE media_id = ? ORDER BY name";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, mediaId);
-            ResultSet rs = pstmt.executeQuery();
 
-            while (rs.next()) {
-                characters.add(parseCharacter(rs));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    characters.add(RowMappers.character(rs));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -53,22 +126,51 @@ public class JdbcCharacterRepository implements CharacterRepository {
         return characters;
     }
 
+    @Override
+    public Map<Integer, List<Character>> findByMediaIds(Collection<Integer> mediaIds) {
+        Map<Integer, List<Character>> byMedia = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(mediaIds);
+        try (Connection conn = provider.getReadConnection()) {
+            for (int from = 0; from < ids.size(); from += MAX_IN_PARAMS) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IN_PARAMS, ids.size()));
+                String placeholders = chunk.stream().map(id -> "?").collect(Collectors.joining(", "));
+                String sql = "SELECT * FROM characters WHERE media_id IN (" + placeholders + ") ORDER BY name";
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) {
+                        pstmt.setInt(i + 1, chunk.get(i));
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            Character character = RowMappers.character(rs);
+                            byMedia.computeIfAbsent(character.getMediaId(), k -> new ArrayList<>()).add(character);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return byMedia;
+    }
+
     @Override
     public List<Character> findByUserId(int userId) {
         List<Character> characters = new ArrayList<>();
-        try {
-            String sql = """
-                SELECT c.* FROM characters c
-                JOIN media m ON c.media_id = m.id
-                WHERE m.user_id = ?
-                ORDER BY c.name
-            """;
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        String sql = """
+            SELECT c.* FROM characters c
+            JOIN media m ON c.media_id = m.id
+            WHERE m.user_id = ?
+            ORDER BY c.name
+        """;
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
 
-            while (rs.next()) {
-                characters.add(parseCharacter(rs));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    characters.add(RowMappers.character(rs));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -76,16 +178,38 @@ public class JdbcCharacterRepository implements CharacterRepository {
         return characters;
     }
 
+    @Override
+    public Stream<Character> streamAll() {
+        return stream("SELECT * FROM characters ORDER BY name", pstmt -> { });
+    }
+
+    @Override
+    public Stream<Character> streamWhere(SqlPredicate where) {
+        return stream("SELECT * FROM characters WHERE " + where.getClause() + " ORDER BY name", pstmt -> where.bind(pstmt, 1));
+    }
+
+    @Override
+    public Stream<Character> streamByUserId(int userId) {
+        String sql = """
+            SELECT c.* FROM characters c
+            JOIN media m ON c.media_id = m.id
+            WHERE m.user_id = ?
+            ORDER BY c.name
+        """;
+        return stream(sql, pstmt -> pstmt.setInt(1, userId));
+    }
+
     @Override
     public Character findById(int id) {
-        try {
-            String sql = "SELECT * FROM characters WHERE id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        String sql = "SELECT * FROM characters WHERE id = ?";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
 
-            if (rs.next()) {
-                return parseCharacter(rs);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return RowMappers.character(rs);
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -94,36 +218,121 @@ public class JdbcCharacterRepository implements CharacterRepository {
     }
 
     @Override
-    public void save(CharacterBuilder builder) {
-        try {
-            String additionalFields = builder.getAdditionalFields().isEmpty() ? ""
-                    : builder.getAdditionalFields().entrySet().stream()
-                    .map(e -> e.getKey() + ":" + e.getValue())
-                    .collect(Collectors.joining(";"));
-
-            String sql = "INSERT INTO characters (name, age, birthday, gender, species, activity, description, hashtags, additional_fields, media_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, builder.getName());
-            pstmt.setInt(2, builder.getAge());
-            pstmt.setString(3, builder.getBirthday());
-            pstmt.setString(4, builder.getGender());
-            pstmt.setString(5, builder.getSpecies());
-            pstmt.setString(6, builder.getActivity());
-            pstmt.setString(7, builder.getDescription());
-            pstmt.setString(8, builder.getHashtags());
-            pstmt.setString(9, additionalFields);
-            pstmt.setInt(10, builder.getMediaId());
-            pstmt.executeUpdate();
+    public List<Character> findByIds(Collection<Integer> ids) {
+        List<Character> characters = new ArrayList<>();
+        List<Integer> idList = new ArrayList<>(ids);
+        try (Connection conn = provider.getReadConnection()) {
+            for (int from = 0; from < idList.size(); from += MAX_IN_PARAMS) {
+                List<Integer> chunk = idList.subList(from, Math.min(from + MAX_IN_PARAMS, idList.size()));
+                SqlPredicate where = SqlPredicate.in("id", chunk);
+                String sql = "SELECT * FROM characters WHERE " + where.getClause();
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    where.bind(pstmt, 1);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            characters.add(RowMappers.character(rs));
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        characters.sort(Comparator.comparing(Character::getName));
+        return characters;
+    }
+
+    @Override
+    public AgeIndex loadAgeIndex() {
+        int[] ages = new int[64];
+        int[] ids = new int[64];
+        int count = 0;
+        String sql = "SELECT id, age FROM characters";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            while (rs.next()) {
+                int age = rs.getInt("age");
+                // SQL range predicates never match NULL, so neither does the index.
+                if (rs.wasNull()) continue;
+                if (count == ages.length) {
+                    ages = Arrays.copyOf(ages, count * 2);
+                    ids = Arrays.copyOf(ids, count * 2);
+                }
+                ages[count] = age;
+                ids[count] = rs.getInt("id");
+                count++;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        return AgeIndex.build(Arrays.copyOf(ages, count), Arrays.copyOf(ids, count));
+    }
+
+    @Override
+    public int save(CharacterBuilder builder) {
+        int[] ids = saveAll(List.of(builder));
+        return ids.length == 1 ? ids[0] : -1;
+    }
+
+    @Override
+    public int[] saveAll(List<CharacterBuilder> characters) {
+        if (characters.isEmpty()) return new int[0];
+
+        String sql = "INSERT INTO characters (name, age, birthday, birthday_day, birthday_md, gender, species, activity, description, hashtags, additional_fields, media_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection conn = provider.getWriteConnection()) {
+            return JdbcTransactions.run(conn, () -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (CharacterBuilder builder : characters) {
+                        String additionalFields = builder.getAdditionalFields().isEmpty() ? ""
+                                : builder.getAdditionalFields().entrySet().stream()
+                                .map(e -> e.getKey() + ":" + e.getValue())
+                                .collect(Collectors.joining(";"));
+
+                        pstmt.setString(1, builder.getName());
+                        pstmt.setInt(2, builder.getAge());
+                        pstmt.setString(3, builder.getBirthday());
+                        pstmt.setObject(4, DateFields.toEpochDay(builder.getBirthday()));
+                        pstmt.setObject(5, DateFields.toMonthDay(builder.getBirthday()));
+                        pstmt.setString(6, builder.getGender());
+                        pstmt.setString(7, builder.getSpecies());
+                        pstmt.setString(8, builder.getActivity());
+                        pstmt.setString(9, builder.getDescription());
+                        pstmt.setString(10, builder.getHashtags());
+                        pstmt.setString(11, additionalFields);
+                        pstmt.setInt(12, builder.getMediaId());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                int[] ids = JdbcTransactions.lastInsertedIds(conn, characters.size());
+                TagLinks.linkAll(conn, "character_tags", "character_id", ids,
+                        characters.stream().map(CharacterBuilder::getHashtags).toList());
+                return ids;
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return new int[0];
+    }
+
+    @Override
+    public TagIndex loadTagIndex() {
+        try (Connection conn = provider.getReadConnection()) {
+            return TagIndex.build(TagLinks.loadPostings(conn, "character_tags", "character_id"));
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return TagIndex.build(Map.of());
     }
 
     @Override
     public void delete(int id) {
-        try {
-            String sql = "DELETE FROM characters WHERE id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        String sql = "DELETE FROM characters WHERE id = ?";
+        try (Connection conn = provider.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             pstmt.executeUpdate();
         } catch (SQLException e) {
@@ -131,30 +340,12 @@ public class JdbcCharacterRepository implements CharacterRepository {
         }
     }
 
-    private Character parseCharacter(ResultSet rs) throws SQLException {
-        Map<String, String> additionalFields = new HashMap<>();
-        String fieldsStr = rs.getString("additional_fields");
-        if (fieldsStr != null && !fieldsStr.isEmpty()) {
-            for (String pair : fieldsStr.split(";")) {
-                String[] kv = pair.split(":", 2);
-                if (kv.length == 2) {
-                    additionalFields.put(kv[0], kv[1]);
-                }
-            }
+    private Stream<Character> stream(String sql, ResultSetStream.Binder binder) {
+        try {
+            return ResultSetStream.open(provider, sql, fetchSize, binder, RowMappers::character);
+        } catch (SQLException e) {
+            e.printStackTrace();
         }
-
-        return new Character(
-                rs.getInt("id"),
-                rs.getString("name"),
-                rs.getInt("age"),
-                rs.getString("birthday"),
-                rs.getString("gender"),
-                rs.getString("species"),
-                rs.getString("activity"),
-                rs.getString("description"),
-                rs.getString("hashtags"),
-                additionalFields,
-                rs.getInt("media_id")
-        );
+        return Stream.empty();
     }
 }
@@ -1,51 +1,68 @@
 package repository.jdbc;
 
+import db.DatabaseConnectionProvider;
 import component.Media;
 import component.Character;
 import repository.FavoriteRepository;
 import repository.CharacterRepository;
-
+import filter.SqlPredicate;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class JdbcFavoriteRepository implements FavoriteRepository {
-    private Connection conn;
+    private static final int MAX_IN_PARAMS = 500;
+
+    private DatabaseConnectionProvider provider;
     private CharacterRepository charRepo;
 
-    public JdbcFavoriteRepository(Connection conn, CharacterRepository charRepo) {
-        this.conn = conn;
+    public JdbcFavoriteRepository(DatabaseConnectionProvider provider, CharacterRepository charRepo) {
+        this.provider = provider;
         this.charRepo = charRepo;
     }
 
     @Override
     public List<Media> findFavoriteMedia(int userId) {
+        return findFavoriteMedia(userId, -1, 0);
+    }
+
+    @Override
+    public List<Character> findFavoriteCharacters(int userId) {
+        return findFavoriteCharacters(userId, -1, 0);
+    }
+
+    @Override
+    public List<Media> findFavoriteMedia(int userId, int limit, int offset) {
         List<Media> favorites = new ArrayList<>();
-        try {
-            String sql = """
-                SELECT m.* FROM media m
-                JOIN favorites f ON m.id = f.media_id
-                WHERE f.user_id = ? AND f.media_id IS NOT NULL
-                ORDER BY m.title
-            """;
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        String sql = """
+            SELECT m.*, (SELECT COUNT(*) FROM characters c WHERE c.media_id = m.id) AS character_count
+            FROM media m
+            JOIN favorites f ON m.id = f.media_id
+            WHERE f.user_id = ?
+            ORDER BY m.title
+            LIMIT ? OFFSET ?
+        """;
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
+            pstmt.setInt(2, limit);
+            pstmt.setInt(3, offset);
 
-            while (rs.next()) {
-                favorites.add(new Media(
-                        rs.getInt("id"),
-                        rs.getString("title"),
-                        rs.getString("description"),
-                        rs.getString("release_date"),
-                        rs.getString("type"),
-                        rs.getString("genre"),
-                        rs.getString("hashtags")
-                ));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    favorites.add(RowMappers.media(rs, charRepo));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -54,21 +71,25 @@ public class JdbcFavoriteRepository implements FavoriteRepository {
     }
 
     @Override
-    public List<Character> findFavoriteCharacters(int userId) {
+    public List<Character> findFavoriteCharacters(int userId, int limit, int offset) {
         List<Character> favorites = new ArrayList<>();
-        try {
-            String sql = """
-                SELECT c.id FROM characters c
-                JOIN favorites f ON c.id = f.character_id
-                WHERE f.user_id = ? AND f.character_id IS NOT NULL
-                ORDER BY c.name
-            """;
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        String sql = """
+            SELECT c.* FROM characters c
+            JOIN favorites f ON c.id = f.character_id
+            WHERE f.user_id = ?
+            ORDER BY c.name
+            LIMIT ? OFFSET ?
+        """;
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
+            pstmt.setInt(2, limit);
+            pstmt.setInt(3, offset);
 
-            while (rs.next()) {
-                favorites.add(charRepo.findById(rs.getInt("id")));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    favorites.add(RowMappers.character(rs));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -77,78 +98,195 @@ public class JdbcFavoriteRepository implements FavoriteRepository {
     }
 
     @Override
-    public void addFavorite(int userId, int itemId, boolean isMedia) {
-        try {
-            String checkSql = isMedia
-                    ? "SELECT COUNT(*) FROM favorites WHERE user_id = ? AND media_id = ?"
-                    : "SELECT COUNT(*) FROM favorites WHERE user_id = ? AND character_id = ?";
-
-            PreparedStatement checkStmt = conn.prepareStatement(checkSql);
-            checkStmt.setInt(1, userId);
-            checkStmt.setInt(2, itemId);
-            ResultSet rs = checkStmt.executeQuery();
-
-            if (rs.next() && rs.getInt(1) > 0) {
-                System.out.println("Already in favorites!");
-                return;
-            }
+    public boolean addFavorite(int userId, int itemId, boolean isMedia) {
+        return !addFavorites(userId, List.of(itemId), isMedia).isEmpty();
+    }
+
+    @Override
+    public boolean removeFavorite(int userId, int itemId, boolean isMedia) {
+        return !removeFavorites(userId, List.of(itemId), isMedia).isEmpty();
+    }
 
-            String sql = isMedia
-                    ? "INSERT INTO favorites (user_id, media_id) VALUES (?, ?)"
-                    : "INSERT INTO favorites (user_id, character_id) VALUES (?, ?)";
+    // The unique (user_id, media_id) and (user_id, character_id) indexes make repeated
+    // adds no-ops instead of check-then-insert races.
+    @Override
+    public List<Integer> addFavorites(int userId, Collection<Integer> itemIds, boolean isMedia) {
+        String sql = isMedia
+                ? "INSERT OR IGNORE INTO favorites (user_id, media_id) VALUES (?, ?)"
+                : "INSERT OR IGNORE INTO favorites (user_id, character_id) VALUES (?, ?)";
+        return updateEach(sql, userId, itemIds);
+    }
 
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, itemId);
-            pstmt.executeUpdate();
-            System.out.println("Added to favorites!");
+    @Override
+    public List<Integer> removeFavorites(int userId, Collection<Integer> itemIds, boolean isMedia) {
+        String sql = isMedia
+                ? "DELETE FROM favorites WHERE user_id = ? AND media_id = ?"
+                : "DELETE FROM favorites WHERE user_id = ? AND character_id = ?";
+        return updateEach(sql, userId, itemIds);
+    }
+
+    @Override
+    public Set<Integer> findFavoritedIds(int userId, Collection<Integer> itemIds, boolean isMedia) {
+        Set<Integer> favorited = new HashSet<>();
+        String column = isMedia ? "media_id" : "character_id";
+        List<Integer> ids = new ArrayList<>(itemIds);
+        try (Connection conn = provider.getReadConnection()) {
+            for (int from = 0; from < ids.size(); from += MAX_IN_PARAMS) {
+                SqlPredicate in = SqlPredicate.in(column, ids.subList(from, Math.min(from + MAX_IN_PARAMS, ids.size())));
+                String sql = "SELECT " + column + " FROM favorites WHERE user_id = ? AND " + in.getClause();
+
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, userId);
+                    in.bind(pstmt, 2);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            favorited.add(rs.getInt(1));
+                        }
+                    }
+                }
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        return favorited;
     }
 
     @Override
-    public void removeFavorite(int userId, int itemId, boolean isMedia) {
-        try {
-            String sql = isMedia
-                    ? "DELETE FROM favorites WHERE user_id = ? AND media_id = ?"
-                    : "DELETE FROM favorites WHERE user_id = ? AND character_id = ?";
+    public int countFavoriteMedia(int userId) {
+        return queryCount("SELECT media_count FROM user_favorite_counts WHERE user_id = ?", userId);
+    }
 
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, userId);
-            pstmt.setInt(2, itemId);
-            pstmt.executeUpdate();
-            System.out.println("Removed from favorites!");
+    @Override
+    public int countFavoriteCharacters(int userId) {
+        return queryCount("SELECT character_count FROM user_favorite_counts WHERE user_id = ?", userId);
+    }
+
+    @Override
+    public int countFavoritesOf(int itemId, boolean isMedia) {
+        return queryCount(isMedia
+                ? "SELECT favorite_count FROM media_favorite_counts WHERE media_id = ?"
+                : "SELECT favorite_count FROM character_favorite_counts WHERE character_id = ?", itemId);
+    }
+
+    @Override
+    public Map<Integer, Integer> loadFavoriteCounts(Collection<Integer> itemIds, boolean isMedia) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        if (itemIds.isEmpty()) return counts;
+
+        String column = isMedia ? "media_id" : "character_id";
+        String table = isMedia ? "media_favorite_counts" : "character_favorite_counts";
+        SqlPredicate in = SqlPredicate.idIn(column, itemIds.stream().mapToInt(Integer::intValue).toArray());
+        String sql = "SELECT " + column + ", favorite_count FROM " + table + " WHERE favorite_count > 0 AND " + in.getClause();
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            in.bind(pstmt, 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getInt(1), rs.getInt(2));
+                }
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        return counts;
     }
 
     @Override
-    public int countFavoriteMedia(int userId) {
-        try {
-            String sql = "SELECT COUNT(*) FROM favorites WHERE user_id = ? AND media_id IS NOT NULL";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-            return rs.next() ? rs.getInt(1) : 0;
+    public Map<Integer, Integer> loadTopFavorited(int limit, boolean isMedia) {
+        Map<Integer, Integer> counts = new LinkedHashMap<>();
+        String sql = isMedia
+                ? "SELECT media_id, favorite_count FROM media_favorite_counts WHERE favorite_count > 0 ORDER BY favorite_count DESC, media_id LIMIT ?"
+                : "SELECT character_id, favorite_count FROM character_favorite_counts WHERE favorite_count > 0 ORDER BY favorite_count DESC, character_id LIMIT ?";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    counts.put(rs.getInt(1), rs.getInt(2));
+                }
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
-        return 0;
+        return counts;
     }
 
     @Override
-    public int countFavoriteCharacters(int userId) {
-        try {
-            String sql = "SELECT COUNT(*) FROM favorites WHERE user_id = ? AND character_id IS NOT NULL";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-            return rs.next() ? rs.getInt(1) : 0;
+    public Map<Integer, int[]> loadFavoriteSets(boolean isMedia) {
+        Map<Integer, int[]> sets = new HashMap<>();
+        String sql = isMedia
+                ? "SELECT user_id, media_id FROM favorites WHERE media_id IN (SELECT id FROM media) ORDER BY user_id, media_id"
+                : "SELECT user_id, character_id FROM favorites WHERE character_id IN (SELECT id FROM characters) ORDER BY user_id, character_id";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            int currentUser = 0;
+            int[] ids = new int[16];
+            int count = 0;
+            while (rs.next()) {
+                int userId = rs.getInt(1);
+                if (count > 0 && userId != currentUser) {
+                    sets.put(currentUser, Arrays.copyOf(ids, count));
+                    count = 0;
+                }
+                currentUser = userId;
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count * 2);
+                }
+                ids[count++] = rs.getInt(2);
+            }
+            if (count > 0) {
+                sets.put(currentUser, Arrays.copyOf(ids, count));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return sets;
+    }
+
+    private int queryCount(String sql, int id) {
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return 0;
     }
+
+    private List<Integer> updateEach(String sql, int userId, Collection<Integer> itemIds) {
+        if (itemIds.isEmpty()) return List.of();
+
+        List<Integer> ids = new ArrayList<>(itemIds);
+        try (Connection conn = provider.getWriteConnection()) {
+            return JdbcTransactions.run(conn, () -> {
+                int[] counts;
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (int itemId : ids) {
+                        pstmt.setInt(1, userId);
+                        pstmt.setInt(2, itemId);
+                        pstmt.addBatch();
+                    }
+                    counts = pstmt.executeBatch();
+                }
+                List<Integer> changed = new ArrayList<>();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] > 0) {
+                        changed.add(ids.get(i));
+                    }
+                }
+                return changed;
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return List.of();
+    }
 }
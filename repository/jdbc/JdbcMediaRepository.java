@@ -1,36 +1,62 @@
 package repository.jdbc;
 
+import builder.MediaBuilder;
+import db.DatabaseConnectionProvider;
+import component.DateFields;
 import component.Media;
 import component.Character;
+import component.MediaDetails;
+import component.MediaGenre;
+import component.MediaSummary;
+import component.MediaType;
+import filter.SqlPredicate;
+import index.MediaCategoryIndex;
+import index.TagIndex;
 import repository.CharacterRepository;
 import repository.MediaRepository;
+import repository.Page;
+import repository.PageRequest;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public class JdbcMediaRepository implements MediaRepository {
-    private Connection conn;
+    public static final int DEFAULT_FETCH_SIZE = 500;
+    private static final String CHARACTER_COUNT =
+            "(SELECT COUNT(*) FROM characters c WHERE c.media_id = media.id) AS character_count";
+    private static final String MEDIA_SELECT = "SELECT media.*, " + CHARACTER_COUNT + " FROM media";
+    private static final String SUMMARY_SELECT = "SELECT id, title, type, " + CHARACTER_COUNT + " FROM media";
+
+    private DatabaseConnectionProvider provider;
     private CharacterRepository charRepo;
+    private int fetchSize;
+
+    public JdbcMediaRepository(DatabaseConnectionProvider provider, CharacterRepository charRepo) {
+        this(provider, charRepo, DEFAULT_FETCH_SIZE);
+    }
 
-    public JdbcMediaRepository(Connection conn, CharacterRepository charRepo) {
-        this.conn = conn;
+    public JdbcMediaRepository(DatabaseConnectionProvider provider, CharacterRepository charRepo, int fetchSize) {
+        this.provider = provider;
         this.charRepo = charRepo;
+        this.fetchSize = fetchSize;
     }
 
     @Override
     public List<Media> findAll() {
         List<Media> mediaList = new ArrayList<>();
-        try {
-            String sql = "SELECT * FROM media ORDER BY title";
-            Statement stmt = conn.createStatement();
-            ResultSet rs = stmt.executeQuery(sql);
+        String sql = MEDIA_SELECT + " ORDER BY title";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
-                Media media = createFromResultSet(rs);
-                List<Character> characters = charRepo.findByMediaId(media.getId());
-                characters.forEach(media::addCharacter);
-                mediaList.add(media);
+                mediaList.add(map(rs));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -39,16 +65,66 @@ public class JdbcMediaRepository implements MediaRepository {
     }
 
     @Override
-    public List<Media> findByUserId(int userId) {
+    public List<Media> findWhere(SqlPredicate where) {
         List<Media> mediaList = new ArrayList<>();
+        String sql = MEDIA_SELECT + " WHERE " + where.getClause() + " ORDER BY title";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            where.bind(pstmt, 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    mediaList.add(map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return mediaList;
+    }
+
+    @Override
+    public Page<Media> findPage(SqlPredicate where, PageRequest request) {
+        try (Connection conn = provider.getReadConnection()) {
+            return KeysetPages.fetch(conn, MEDIA_SELECT, "title", where, request, this::map);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Page.empty(request.getSize());
+    }
+
+    @Override
+    public Page<MediaSummary> findSummaryPage(SqlPredicate where, PageRequest request) {
+        try (Connection conn = provider.getReadConnection()) {
+            return KeysetPages.fetch(conn, SUMMARY_SELECT, "title", where, request, RowMappers::mediaSummary);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Page.empty(request.getSize());
+    }
+
+    @Override
+    public Stream<MediaSummary> streamSummaries() {
         try {
-            String sql = "SELECT * FROM media WHERE user_id = ? ORDER BY title";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+            return ResultSetStream.open(provider, SUMMARY_SELECT + " ORDER BY title", fetchSize, pstmt -> { }, RowMappers::mediaSummary);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Stream.empty();
+    }
+
+    @Override
+    public List<Media> findByUserId(int userId) {
+        List<Media> mediaList = new ArrayList<>();
+        String sql = MEDIA_SELECT + " WHERE user_id = ? ORDER BY title";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
 
-            while (rs.next()) {
-                mediaList.add(createFromResultSet(rs));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    mediaList.add(map(rs));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -56,18 +132,33 @@ public class JdbcMediaRepository implements MediaRepository {
         return mediaList;
     }
 
+    @Override
+    public Stream<Media> streamAll() {
+        return stream(MEDIA_SELECT + " ORDER BY title", pstmt -> { });
+    }
+
+    @Override
+    public Stream<Media> streamWhere(SqlPredicate where) {
+        return stream(MEDIA_SELECT + " WHERE " + where.getClause() + " ORDER BY title", pstmt -> where.bind(pstmt, 1));
+    }
+
+    @Override
+    public Stream<Media> streamByUserId(int userId) {
+        String sql = MEDIA_SELECT + " WHERE user_id = ? ORDER BY title";
+        return stream(sql, pstmt -> pstmt.setInt(1, userId));
+    }
+
     @Override
     public Media findById(int id) {
-        try {
-            String sql = "SELECT * FROM media WHERE id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        String sql = MEDIA_SELECT + " WHERE id = ?";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
 
-            if (rs.next()) {
-                Media media = createFromResultSet(rs);
-                charRepo.findByMediaId(id).forEach(media::addCharacter);
-                return media;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return map(rs);
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -76,28 +167,108 @@ public class JdbcMediaRepository implements MediaRepository {
     }
 
     @Override
-    public void save(String title, String description, String releaseDate, String type, String genre, String hashtags, int userId) {
-        try {
-            String sql = "INSERT INTO media (title, description, release_date, type, genre, hashtags, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
-            pstmt.setString(1, title);
-            pstmt.setString(2, description);
-            pstmt.setString(3, releaseDate);
-            pstmt.setString(4, type);
-            pstmt.setString(5, genre);
-            pstmt.setString(6, hashtags);
-            pstmt.setInt(7, userId);
-            pstmt.executeUpdate();
+    public List<Media> findByIds(Collection<Integer> ids) {
+        if (ids.isEmpty()) return new ArrayList<>();
+        return findWhere(SqlPredicate.idIn("id", ids.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    @Override
+    public MediaDetails findDetails(int id) {
+        // One row per character (or a single row with NULL character columns), so the header,
+        // author, favorite count and cast all come back from one statement.
+        String sql = """
+            SELECT media.*, u.id AS author_id, u.username AS author_name,
+                   COALESCE(fc.favorite_count, 0) AS favorite_count,
+                   c.id AS c_id, c.name AS c_name, c.age AS c_age, c.birthday AS c_birthday,
+                   c.gender AS c_gender, c.species AS c_species, c.activity AS c_activity,
+                   c.description AS c_description, c.hashtags AS c_hashtags,
+                   c.additional_fields AS c_additional_fields, c.media_id AS c_media_id
+            FROM media
+            LEFT JOIN users u ON u.id = media.user_id
+            LEFT JOIN media_favorite_counts fc ON fc.media_id = media.id
+            LEFT JOIN characters c ON c.media_id = media.id
+            WHERE media.id = ?
+            ORDER BY c.name, c.id
+        """;
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                Media media = RowMappers.media(rs);
+                int authorId = rs.getInt("author_id");
+                String authorName = rs.getString("author_name");
+                int favoriteCount = rs.getInt("favorite_count");
+
+                List<Character> characters = new ArrayList<>();
+                do {
+                    rs.getInt("c_id");
+                    if (!rs.wasNull()) {
+                        characters.add(RowMappers.character(rs, "c_"));
+                    }
+                } while (rs.next());
+                media.setCharacterCount(characters.size());
+                media.setCharacterLoader(() -> characters);
+                return new MediaDetails(media, authorId, authorName, favoriteCount);
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
+        return null;
+    }
+
+    @Override
+    public int save(String title, String description, String releaseDate, MediaType type, MediaGenre genre, String hashtags, int userId) {
+        int[] ids = saveAll(List.of(new MediaBuilder()
+                .setTitle(title)
+                .setDescription(description)
+                .setReleaseDate(releaseDate)
+                .setType(type)
+                .setGenre(genre)
+                .setHashtags(hashtags)
+                .setUserId(userId)));
+        return ids.length == 1 ? ids[0] : -1;
+    }
+
+    @Override
+    public int[] saveAll(List<MediaBuilder> media) {
+        if (media.isEmpty()) return new int[0];
+
+        String sql = "INSERT INTO media (title, description, release_date, release_day, type, genre, hashtags, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (Connection conn = provider.getWriteConnection()) {
+            return JdbcTransactions.run(conn, () -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    for (MediaBuilder builder : media) {
+                        pstmt.setString(1, builder.getTitle());
+                        pstmt.setString(2, builder.getDescription());
+                        pstmt.setString(3, builder.getReleaseDate());
+                        pstmt.setObject(4, DateFields.toEpochDay(builder.getReleaseDate()));
+                        pstmt.setString(5, builder.getType().getLabel());
+                        pstmt.setString(6, builder.getGenre().getLabel());
+                        pstmt.setString(7, builder.getHashtags());
+                        pstmt.setInt(8, builder.getUserId());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                int[] ids = JdbcTransactions.lastInsertedIds(conn, media.size());
+                TagLinks.linkAll(conn, "media_tags", "media_id", ids,
+                        media.stream().map(MediaBuilder::getHashtags).toList());
+                return ids;
+            });
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return new int[0];
     }
 
     @Override
     public void delete(int id) {
-        try {
-            String sql = "DELETE FROM media WHERE id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        String sql = "DELETE FROM media WHERE id = ?";
+        try (Connection conn = provider.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             pstmt.executeUpdate();
         } catch (SQLException e) {
@@ -105,15 +276,39 @@ public class JdbcMediaRepository implements MediaRepository {
         }
     }
 
+    @Override
+    public Set<Integer> findExistingIds(Collection<Integer> ids) {
+        Set<Integer> existing = new HashSet<>();
+        if (ids.isEmpty()) return existing;
+
+        SqlPredicate where = SqlPredicate.idIn("id", ids.stream().mapToInt(Integer::intValue).toArray());
+        String sql = "SELECT id FROM media WHERE " + where.getClause();
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            where.bind(pstmt, 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getInt("id"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return existing;
+    }
+
     @Override
     public int getAuthorId(int mediaId) {
-        try {
-            String sql = "SELECT u.id FROM users u JOIN media m ON u.id = m.user_id WHERE m.id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        String sql = "SELECT u.id FROM users u JOIN media m ON u.id = m.user_id WHERE m.id = ?";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, mediaId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("id");
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getInt("id");
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -123,13 +318,15 @@ public class JdbcMediaRepository implements MediaRepository {
 
     @Override
     public String getAuthorName(int mediaId) {
-        try {
-            String sql = "SELECT u.username FROM users u JOIN media m ON u.id = m.user_id WHERE m.id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        String sql = "SELECT u.username FROM users u JOIN media m ON u.id = m.user_id WHERE m.id = ?";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, mediaId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getString("username");
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getString("username");
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -137,15 +334,48 @@ public class JdbcMediaRepository implements MediaRepository {
         return null;
     }
 
-    private Media createFromResultSet(ResultSet rs) throws SQLException {
-        return new Media(
-                rs.getInt("id"),
-                rs.getString("title"),
-                rs.getString("description"),
-                rs.getString("release_date"),
-                rs.getString("type"),
-                rs.getString("genre"),
-                rs.getString("hashtags")
-        );
+    @Override
+    public MediaCategoryIndex loadCategoryIndex() {
+        List<Integer> ids = new ArrayList<>();
+        List<MediaType> types = new ArrayList<>();
+        List<MediaGenre> genres = new ArrayList<>();
+        String sql = "SELECT id, type, genre FROM media";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            while (rs.next()) {
+                ids.add(rs.getInt("id"));
+                types.add(MediaType.fromLabel(rs.getString("type")));
+                genres.add(MediaGenre.fromLabel(rs.getString("genre")));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return MediaCategoryIndex.build(ids.stream().mapToInt(Integer::intValue).toArray(),
+                types.toArray(new MediaType[0]), genres.toArray(new MediaGenre[0]));
+    }
+
+    @Override
+    public TagIndex loadTagIndex() {
+        try (Connection conn = provider.getReadConnection()) {
+            return TagIndex.build(TagLinks.loadPostings(conn, "media_tags", "media_id"));
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return TagIndex.build(Map.of());
+    }
+
+    private Media map(ResultSet rs) throws SQLException {
+        return RowMappers.media(rs, charRepo);
+    }
+
+    private Stream<Media> stream(String sql, ResultSetStream.Binder binder) {
+        try {
+            return ResultSetStream.open(provider, sql, fetchSize, binder, this::map);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Stream.empty();
     }
 }
@@ -0,0 +1,96 @@
+package repository.jdbc;
+
+import db.DatabaseConnectionProvider;
+import component.Character;
+import component.Media;
+import component.Suggestion;
+import repository.SearchRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JdbcSearchRepository implements SearchRepository {
+    private DatabaseConnectionProvider provider;
+
+    public JdbcSearchRepository(DatabaseConnectionProvider provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public List<Media> searchMedia(String matchQuery, int limit) {
+        List<Media> hits = new ArrayList<>();
+        String sql = """
+            SELECT m.* FROM media_fts
+            JOIN media m ON m.id = media_fts.rowid
+            WHERE media_fts MATCH ?
+            ORDER BY bm25(media_fts, 10.0, 1.0, 4.0)
+            LIMIT ?
+        """;
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, matchQuery);
+            pstmt.setInt(2, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    hits.add(RowMappers.media(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return hits;
+    }
+
+    @Override
+    public List<Character> searchCharacters(String matchQuery, int limit) {
+        List<Character> hits = new ArrayList<>();
+        String sql = """
+            SELECT c.* FROM characters_fts
+            JOIN characters c ON c.id = characters_fts.rowid
+            WHERE characters_fts MATCH ?
+            ORDER BY bm25(characters_fts, 10.0, 1.0, 4.0)
+            LIMIT ?
+        """;
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, matchQuery);
+            pstmt.setInt(2, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    hits.add(RowMappers.character(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return hits;
+    }
+
+    @Override
+    public List<Suggestion> loadSuggestions() {
+        List<Suggestion> suggestions = new ArrayList<>();
+        try (Connection conn = provider.getReadConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT id, title FROM media");
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    suggestions.add(new Suggestion(rs.getInt("id"), rs.getString("title"), true));
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT id, name FROM characters");
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    suggestions.add(new Suggestion(rs.getInt("id"), rs.getString("name"), false));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return suggestions;
+    }
+}
@@ -0,0 +1,51 @@
+package repository.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Runs work in a transaction on the given connection, or inside the caller's transaction
+// if one is already open on it.
+final class JdbcTransactions {
+    private JdbcTransactions() {
+    }
+
+    @FunctionalInterface
+    interface Work<T> {
+        T run() throws SQLException;
+    }
+
+    // Ids of the rows inserted by the last batch into an AUTOINCREMENT table. Valid only inside
+    // the transaction that did the inserts: with a single writer they are assigned consecutively,
+    // and trigger inserts into other tables do not change last_insert_rowid().
+    static int[] lastInsertedIds(Connection conn, int count) throws SQLException {
+        int last;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+            last = rs.next() ? rs.getInt(1) : 0;
+        }
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = last - count + 1 + i;
+        }
+        return ids;
+    }
+
+    static <T> T run(Connection conn, Work<T> work) throws SQLException {
+        if (!conn.getAutoCommit()) {
+            return work.run();
+        }
+        conn.setAutoCommit(false);
+        try {
+            T result = work.run();
+            conn.commit();
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package repository.jdbc;
 
+import db.DatabaseConnectionProvider;
+import component.ProfileStats;
 import component.User;
+import filter.SqlPredicate;
+import repository.Page;
+import repository.PageRequest;
 import repository.UserRepository;
 
 import java.sql.*;
@@ -8,28 +13,29 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class JdbcUserRepository implements UserRepository {
-    private Connection conn;
+    private DatabaseConnectionProvider provider;
 
-    public JdbcUserRepository(Connection conn) {
-        this.conn = conn;
+    public JdbcUserRepository(DatabaseConnectionProvider provider) {
+        this.provider = provider;
     }
 
     @Override
     public User findByCredentials(String username, String password) {
-        try {
-            String sql = "SELECT id, username, email, is_admin FROM users WHERE username = ? AND password = ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        String sql = "SELECT id, username, email, is_admin FROM users WHERE username = ? AND password = ?";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, username);
             pstmt.setString(2, password);
 
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return new User(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        rs.getString("email"),
-                        rs.getInt("is_admin") == 1
-                );
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new User(
+                            rs.getInt("id"),
+                            rs.getString("username"),
+                            rs.getString("email"),
+                            rs.getInt("is_admin") == 1
+                    );
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -39,17 +45,18 @@ public class JdbcUserRepository implements UserRepository {
 
     @Override
     public User create(String username, String email, String password) {
-        try {
-            String sql = "INSERT INTO users (username, email, password, is_admin) VALUES (?, ?, ?, 0)";
-            PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+        String sql = "INSERT INTO users (username, email, password, is_admin) VALUES (?, ?, ?, 0)";
+        try (Connection conn = provider.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             pstmt.setString(1, username);
             pstmt.setString(2, email);
             pstmt.setString(3, password);
             pstmt.executeUpdate();
 
-            ResultSet rs = pstmt.getGeneratedKeys();
-            if (rs.next()) {
-                return new User(rs.getInt(1), username, email, false);
+            try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    return new User(rs.getInt(1), username, email, false);
+                }
             }
         } catch (SQLException e) {
             System.out.println("Username already exists!");
@@ -60,19 +67,20 @@ public class JdbcUserRepository implements UserRepository {
     @Override
     public List<User> findAllExcept(int userId) {
         List<User> users = new ArrayList<>();
-        try {
-            String sql = "SELECT id, username, is_admin FROM users WHERE is_admin = 0 OR (is_admin = 1 AND id != ?)";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        String sql = "SELECT id, username, is_admin FROM users WHERE is_admin = 0 OR (is_admin = 1 AND id != ?)";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-
-            while (rs.next()) {
-                users.add(new User(
-                        rs.getInt("id"),
-                        rs.getString("username"),
-                        null,
-                        rs.getInt("is_admin") == 1
-                ));
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    users.add(new User(
+                            rs.getInt("id"),
+                            rs.getString("username"),
+                            null,
+                            rs.getInt("is_admin") == 1
+                    ));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -80,11 +88,22 @@ public class JdbcUserRepository implements UserRepository {
         return users;
     }
 
+    @Override
+    public Page<User> findPageExcept(int userId, PageRequest request) {
+        SqlPredicate where = SqlPredicate.of("is_admin = 0 OR (is_admin = 1 AND id != ?)", userId);
+        try (Connection conn = provider.getReadConnection()) {
+            return KeysetPages.fetch(conn, "SELECT id, username, email, is_admin FROM users", "username", where, request, RowMappers::user);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return Page.empty(request.getSize());
+    }
+
     @Override
     public void delete(int userId) {
-        try {
-            String sql = "DELETE FROM users WHERE id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        String sql = "DELETE FROM users WHERE id = ?";
+        try (Connection conn = provider.getWriteConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
             pstmt.executeUpdate();
         } catch (SQLException e) {
@@ -94,15 +113,45 @@ public class JdbcUserRepository implements UserRepository {
 
     @Override
     public boolean isAdmin(int userId) {
-        try {
-            String sql = "SELECT is_admin FROM users WHERE id = ?";
-            PreparedStatement pstmt = conn.prepareStatement(sql);
+        String sql = "SELECT is_admin FROM users WHERE id = ?";
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, userId);
-            ResultSet rs = pstmt.executeQuery();
-            return rs.next() && rs.getInt("is_admin") == 1;
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt("is_admin") == 1;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
         return false;
     }
+
+    @Override
+    public ProfileStats loadProfileStats(int userId) {
+        String sql = """
+            SELECT u.id, u.is_admin,
+                (SELECT COUNT(*) FROM media m WHERE m.user_id = u.id) AS media_count,
+                (SELECT COUNT(*) FROM characters c JOIN media m ON c.media_id = m.id
+                    WHERE m.user_id = u.id) AS character_count,
+                COALESCE(fc.media_count, 0) AS favorite_media_count,
+                COALESCE(fc.character_count, 0) AS favorite_character_count
+            FROM users u
+            LEFT JOIN user_favorite_counts fc ON fc.user_id = u.id
+            WHERE u.id = ?
+        """;
+        try (Connection conn = provider.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return RowMappers.profileStats(rs);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
 }
@@ -0,0 +1,76 @@
+package repository.jdbc;
+
+import filter.SqlPredicate;
+import repository.Page;
+import repository.PageRequest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Reads one page ordered by (keyColumn, id) starting from the request's cursor. The row-value
+// comparison lets SQLite seek on the (keyColumn) index, so a page costs the same at any depth.
+final class KeysetPages {
+    private KeysetPages() {
+    }
+
+    static <T> Page<T> fetch(Connection conn, String select, String keyColumn, SqlPredicate where,
+                             PageRequest request, ResultSetStream.RowMapper<T> mapper) throws SQLException {
+        List<String> conditions = new ArrayList<>();
+        if (where != null) {
+            conditions.add("(" + where.getClause() + ")");
+        }
+        if (request.hasCursor()) {
+            conditions.add("(" + keyColumn + ", id) " + (request.isBackward() ? "<" : ">") + " (?, ?)");
+        }
+        String direction = request.isBackward() ? " DESC" : "";
+        String sql = select
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY " + keyColumn + direction + ", id" + direction + " LIMIT ?";
+
+        List<T> rows = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = where != null ? where.bind(pstmt, 1) : 1;
+            if (request.hasCursor()) {
+                pstmt.setString(index++, request.getKey());
+                pstmt.setInt(index++, request.getId());
+            }
+            pstmt.setInt(index, request.getSize() + 1);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                    keys.add(rs.getString(keyColumn));
+                    ids.add(rs.getInt("id"));
+                }
+            }
+        }
+
+        boolean more = rows.size() > request.getSize();
+        if (more) {
+            rows.remove(rows.size() - 1);
+            keys.remove(keys.size() - 1);
+            ids.remove(ids.size() - 1);
+        }
+        if (request.isBackward()) {
+            Collections.reverse(rows);
+            Collections.reverse(keys);
+            Collections.reverse(ids);
+        }
+
+        boolean hasNext = request.isBackward() || more;
+        boolean hasPrevious = request.isBackward() ? more : request.hasCursor();
+        if (rows.isEmpty()) {
+            return Page.empty(request.getSize());
+        }
+        int last = rows.size() - 1;
+        return new Page<>(rows, request.getSize(), hasNext, hasPrevious,
+                keys.get(0), ids.get(0), keys.get(last), ids.get(last));
+    }
+}
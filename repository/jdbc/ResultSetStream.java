@@ -0,0 +1,82 @@
+package repository.jdbc;
+
+import db.DatabaseConnectionProvider;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Maps rows lazily from an open cursor. The read connection stays leased until the
+// stream is closed, so callers must use try-with-resources and consume it on the
+// thread that opened it. A failed read surfaces as an IllegalStateException.
+final class ResultSetStream {
+    private ResultSetStream() {
+    }
+
+    @FunctionalInterface
+    interface Binder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    static <T> Stream<T> open(DatabaseConnectionProvider provider, String sql, int fetchSize,
+                              Binder binder, RowMapper<T> mapper) throws SQLException {
+        Connection conn = provider.getReadConnection();
+        PreparedStatement pstmt = null;
+        ResultSet rs;
+        try {
+            pstmt = conn.prepareStatement(sql);
+            pstmt.setFetchSize(fetchSize);
+            binder.bind(pstmt);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            close(null, pstmt, conn);
+            throw e;
+        }
+
+        ResultSet cursor = rs;
+        PreparedStatement statement = pstmt;
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    // Ending the stream here would pass a truncated result off as complete.
+                    throw new IllegalStateException("Failed to read the next row", e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> close(cursor, statement, conn));
+    }
+
+    private static void close(ResultSet rs, PreparedStatement pstmt, Connection conn) {
+        try {
+            if (rs != null) rs.close();
+            if (pstmt != null) pstmt.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package repository.jdbc;
+
+import component.Character;
+import component.CharacterSummary;
+import component.Media;
+import component.MediaGenre;
+import component.MediaSummary;
+import component.MediaType;
+import component.ProfileStats;
+import component.User;
+import repository.CharacterRepository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+final class RowMappers {
+    private RowMappers() {
+    }
+
+    static Media media(ResultSet rs) throws SQLException {
+        return new Media(
+                rs.getInt("id"),
+                rs.getString("title"),
+                rs.getString("description"),
+                rs.getString("release_date"),
+                MediaType.fromLabel(rs.getString("type")),
+                MediaGenre.fromLabel(rs.getString("genre")),
+                rs.getString("hashtags")
+        );
+    }
+
+    static Media media(ResultSet rs, CharacterRepository charRepo) throws SQLException {
+        Media media = media(rs);
+        media.setCharacterCount(rs.getInt("character_count"));
+        media.setCharacterLoader(() -> charRepo.findByMediaId(media.getId()));
+        return media;
+    }
+
+    static MediaSummary mediaSummary(ResultSet rs) throws SQLException {
+        return new MediaSummary(
+                rs.getInt("id"),
+                rs.getString("title"),
+                MediaType.fromLabel(rs.getString("type")),
+                rs.getInt("character_count")
+        );
+    }
+
+    static CharacterSummary characterSummary(ResultSet rs) throws SQLException {
+        return new CharacterSummary(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getInt("media_id"),
+                rs.getString("media_title")
+        );
+    }
+
+    static User user(ResultSet rs) throws SQLException {
+        return new User(
+                rs.getInt("id"),
+                rs.getString("username"),
+                rs.getString("email"),
+                rs.getInt("is_admin") == 1
+        );
+    }
+
+    static ProfileStats profileStats(ResultSet rs) throws SQLException {
+        return new ProfileStats(
+                rs.getInt("id"),
+                rs.getInt("is_admin") == 1,
+                rs.getInt("media_count"),
+                rs.getInt("character_count"),
+                rs.getInt("favorite_media_count"),
+                rs.getInt("favorite_character_count")
+        );
+    }
+
+    static Character character(ResultSet rs) throws SQLException {
+        return character(rs, "");
+    }
+
+    // Reads a character whose columns were selected under the given alias prefix, e.g. "c_id".
+    static Character character(ResultSet rs, String prefix) throws SQLException {
+        Map<String, String> additionalFields = new HashMap<>();
+        String fieldsStr = rs.getString(prefix + "additional_fields");
+        if (fieldsStr != null && !fieldsStr.isEmpty()) {
+            for (String pair : fieldsStr.split(";")) {
+                String[] kv = pair.split(":", 2);
+                if (kv.length == 2) {
+                    additionalFields.put(kv[0], kv[1]);
+                }
+            }
+        }
+
+        return new Character(
+                rs.getInt(prefix + "id"),
+                rs.getString(prefix + "name"),
+                rs.getInt(prefix + "age"),
+                rs.getString(prefix + "birthday"),
+                rs.getString(prefix + "gender"),
+                rs.getString(prefix + "species"),
+                rs.getString(prefix + "activity"),
+                rs.getString(prefix + "description"),
+                rs.getString(prefix + "hashtags"),
+                additionalFields,
+                rs.getInt(prefix + "media_id")
+        );
+    }
+}
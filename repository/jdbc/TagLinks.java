@@ -0,0 +1,73 @@
+package repository.jdbc;
+
+import component.Hashtags;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+final class TagLinks {
+    private TagLinks() {
+    }
+
+    // ownerIds[i] gets the tags parsed from hashtags.get(i).
+    static void linkAll(Connection conn, String linkTable, String ownerColumn, int[] ownerIds, List<String> hashtags) throws SQLException {
+        Set<String> newTags = new HashSet<>();
+        List<List<String>> parsed = new ArrayList<>();
+        for (String raw : hashtags) {
+            List<String> tags = Hashtags.parse(raw);
+            parsed.add(tags);
+            newTags.addAll(tags);
+        }
+        if (newTags.isEmpty()) return;
+
+        String linkSql = "INSERT OR IGNORE INTO " + linkTable + " (" + ownerColumn + ", tag_id) SELECT ?, id FROM tags WHERE name = ?";
+        try (PreparedStatement insertTag = conn.prepareStatement("INSERT OR IGNORE INTO tags (name) VALUES (?)");
+             PreparedStatement insertLink = conn.prepareStatement(linkSql)) {
+            for (String tag : newTags) {
+                insertTag.setString(1, tag);
+                insertTag.addBatch();
+            }
+            insertTag.executeBatch();
+
+            for (int i = 0; i < ownerIds.length; i++) {
+                for (String tag : parsed.get(i)) {
+                    insertLink.setInt(1, ownerIds[i]);
+                    insertLink.setString(2, tag);
+                    insertLink.addBatch();
+                }
+            }
+            insertLink.executeBatch();
+        }
+    }
+
+    static Map<String, int[]> loadPostings(Connection conn, String linkTable, String ownerColumn) throws SQLException {
+        Map<String, int[]> postings = new HashMap<>();
+        Map<String, Integer> sizes = new HashMap<>();
+        String sql = "SELECT t.name, l." + ownerColumn + " FROM " + linkTable + " l JOIN tags t ON t.id = l.tag_id";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                String tag = rs.getString(1);
+                int[] ids = postings.computeIfAbsent(tag, k -> new int[4]);
+                int size = sizes.getOrDefault(tag, 0);
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    postings.put(tag, ids);
+                }
+                ids[size] = rs.getInt(2);
+                sizes.put(tag, size + 1);
+            }
+        }
+        postings.replaceAll((tag, ids) -> Arrays.copyOf(ids, sizes.get(tag)));
+        return postings;
+    }
+}
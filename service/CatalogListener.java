@@ -0,0 +1,14 @@
+package service;
+
+import java.util.List;
+
+public interface CatalogListener {
+    void itemCreated(int id, String name, boolean isMedia);
+    void itemDeleted(int id, boolean isMedia);
+
+    default void itemsCreated(int[] ids, List<String> names, boolean isMedia) {
+        for (int i = 0; i < ids.length; i++) {
+            itemCreated(ids[i], names.get(i), isMedia);
+        }
+    }
+}
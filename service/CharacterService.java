@@ -1,18 +1,44 @@
 package service;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 import component.Character;
+import component.CharacterSummary;
+import component.Hashtags;
 import builder.CharacterBuilder;
 import repository.CharacterRepository;
+import repository.Page;
+import repository.PageRequest;
+import filter.AgeCharacterFilterStrategy;
 import filter.FilterStrategy;
+import filter.HashtagCharacterFilterStrategy;
+import filter.IdFilterStrategy;
+import filter.SqlPredicate;
+import index.AgeIndex;
+import index.LazyIndex;
+import index.TagIndex;
 
 
 public class CharacterService {
     private CharacterRepository characterRepository;
+    private final LazyIndex<AgeIndex> ageIndex;
+    private final LazyIndex<TagIndex> tagIndex;
+    private final List<CatalogListener> listeners = new CopyOnWriteArrayList<>();
 
     public CharacterService(CharacterRepository characterRepository) {
         this.characterRepository = characterRepository;
+        this.ageIndex = new LazyIndex<>(characterRepository::loadAgeIndex);
+        this.tagIndex = new LazyIndex<>(characterRepository::loadTagIndex);
+    }
+
+    public void addListener(CatalogListener listener) {
+        listeners.add(listener);
     }
 
     public List<Character> getAllCharacters() {
@@ -27,15 +53,103 @@ public class CharacterService {
         return characterRepository.findById(id);
     }
 
+    // Loads the ids in one query and returns them in the order given, skipping missing rows.
+    public List<Character> getCharactersByIds(int[] ids) {
+        Map<Integer, Character> byId = new HashMap<>();
+        for (Character character : characterRepository.findByIds(Arrays.stream(ids).boxed().toList())) {
+            byId.put(character.getId(), character);
+        }
+        return Arrays.stream(ids).mapToObj(byId::get).filter(Objects::nonNull).toList();
+    }
+
     public List<Character> getFilteredCharacters(FilterStrategy<Character> filter) {
-        return filter.apply(characterRepository.findAll());
+        filter = indexed(filter);
+        SqlPredicate where = filter.toSql();
+        List<Character> candidates = where == null ? characterRepository.findAll() : characterRepository.findWhere(where);
+        return filter.applyRemaining(candidates);
+    }
+
+    public Page<Character> getCharacterPage(FilterStrategy<Character> filter, PageRequest request) {
+        return findPage(indexed(filter), request);
+    }
+
+    public Page<CharacterSummary> getCharacterSummaryPage(FilterStrategy<Character> filter, PageRequest request) {
+        filter = indexed(filter);
+        if (filter.isFullyPushedDown()) {
+            return characterRepository.findSummaryPage(filter.toSql(), request);
+        }
+        return findPage(filter, request).map(c -> new CharacterSummary(c.getId(), c.getName(), c.getMediaId(), null));
+    }
+
+    private Page<Character> findPage(FilterStrategy<Character> filter, PageRequest request) {
+        return characterRepository.findPage(filter.toSql(), request).withItems(filter::applyRemaining);
+    }
+
+    public Stream<CharacterSummary> streamCharacterSummaries() {
+        return characterRepository.streamSummaries();
+    }
+
+    public Stream<Character> streamFilteredCharacters(FilterStrategy<Character> filter) {
+        filter = indexed(filter);
+        SqlPredicate where = filter.toSql();
+        Stream<Character> candidates = where == null ? characterRepository.streamAll() : characterRepository.streamWhere(where);
+        return filter.filterRemaining(candidates);
+    }
+
+    public Stream<Character> streamCharactersByUser(int userId) {
+        return characterRepository.streamByUserId(userId);
+    }
+
+    public int countCharactersByAge(Integer minAge, Integer maxAge) {
+        return ageIndex.get().countInRange(minAge, maxAge);
     }
 
     public void createCharacter(CharacterBuilder builder) {
-        characterRepository.save(builder);
+        int id = characterRepository.save(builder);
+        if (id > 0) {
+            ageIndex.update(index -> index.with(builder.getAge(), id));
+            tagIndex.update(index -> index.with(id, Hashtags.parse(builder.getHashtags())));
+            listeners.forEach(listener -> listener.itemCreated(id, builder.getName(), false));
+        }
+    }
+
+    public int[] createCharacters(List<CharacterBuilder> characters) {
+        int[] ids = characterRepository.saveAll(characters);
+        if (ids.length == 0) return ids;
+
+        int[] ages = characters.stream().mapToInt(CharacterBuilder::getAge).toArray();
+        List<List<String>> tags = characters.stream().map(c -> Hashtags.parse(c.getHashtags())).toList();
+        ageIndex.update(index -> index.withAll(ages, ids));
+        tagIndex.update(index -> index.withAll(ids, tags));
+        List<String> names = characters.stream().map(CharacterBuilder::getName).toList();
+        listeners.forEach(listener -> listener.itemsCreated(ids, names, false));
+        return ids;
     }
 
     public void deleteCharacter(int id) {
         characterRepository.delete(id);
+        ageIndex.update(index -> index.without(id));
+        tagIndex.update(index -> index.without(id));
+        listeners.forEach(listener -> listener.itemDeleted(id, false));
+    }
+
+    public int countCharactersWithTags(List<String> tags, boolean matchAll) {
+        TagIndex index = tagIndex.get();
+        return (matchAll ? index.allOf(tags) : index.anyOf(tags)).length;
+    }
+
+    // Filters an in-memory index can answer become id lookups; the rest run as before.
+    private FilterStrategy<Character> indexed(FilterStrategy<Character> filter) {
+        return filter.rewrite(f -> {
+            if (f instanceof AgeCharacterFilterStrategy age) {
+                return new IdFilterStrategy<>(ageIndex.get().idsInRange(age.getMinAge(), age.getMaxAge()), Character::getId);
+            }
+            if (f instanceof HashtagCharacterFilterStrategy tags) {
+                TagIndex index = tagIndex.get();
+                int[] ids = tags.isMatchAll() ? index.allOf(tags.getTags()) : index.anyOf(tags.getTags());
+                return new IdFilterStrategy<>(ids, Character::getId);
+            }
+            return f;
+        });
     }
 }
@@ -0,0 +1,5 @@
+package service;
+
+public interface FavoriteListener {
+    void favoriteChanged(int userId, int itemId, boolean isMedia, boolean added);
+}
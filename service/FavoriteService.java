@@ -2,17 +2,48 @@ package service;
 
 import component.Character;
 import component.Media;
+import index.CoOccurrenceIndex;
+import index.FavoriteIndex;
+import index.FavoriteLeaderboard;
 import repository.FavoriteRepository;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class FavoriteService {
+    public static final int LEADERBOARD_SIZE = 100;
+    public static final int RECOMMENDATION_SIZE = 10;
+
     private FavoriteRepository favoriteRepository;
+    private final List<FavoriteListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile FavoriteLeaderboard mediaLeaderboard;
+    private volatile FavoriteLeaderboard characterLeaderboard;
+    private volatile FavoriteIndex favoriteIndex;
+    private volatile CoOccurrenceIndex mediaCoOccurrence;
+    private volatile CoOccurrenceIndex characterCoOccurrence;
 
     public FavoriteService(FavoriteRepository favoriteRepository) {
         this.favoriteRepository = favoriteRepository;
     }
 
+    public void addListener(FavoriteListener listener) {
+        listeners.add(listener);
+    }
+
+    public synchronized void loadIndexes() {
+        Map<Integer, int[]> mediaSets = favoriteRepository.loadFavoriteSets(true);
+        Map<Integer, int[]> characterSets = favoriteRepository.loadFavoriteSets(false);
+        mediaCoOccurrence = CoOccurrenceIndex.build(RECOMMENDATION_SIZE, mediaSets);
+        characterCoOccurrence = CoOccurrenceIndex.build(RECOMMENDATION_SIZE, characterSets);
+        // Published last: updates only touch the co-occurrence indexes once this is set.
+        favoriteIndex = FavoriteIndex.build(mediaSets, characterSets);
+    }
+
     public List<Media> getFavoriteMedia(int userId) {
         return favoriteRepository.findFavoriteMedia(userId);
     }
@@ -21,14 +52,69 @@ public class FavoriteService {
         return favoriteRepository.findFavoriteCharacters(userId);
     }
 
-    public void addFavorite(int userId, int itemId, boolean isMedia) {
-        favoriteRepository.addFavorite(userId, itemId, isMedia);
+    public List<Media> getFavoriteMedia(int userId, int limit, int offset) {
+        return favoriteRepository.findFavoriteMedia(userId, limit, offset);
+    }
+
+    public List<Character> getFavoriteCharacters(int userId, int limit, int offset) {
+        return favoriteRepository.findFavoriteCharacters(userId, limit, offset);
+    }
+
+    public boolean addFavorite(int userId, int itemId, boolean isMedia) {
+        boolean added = favoriteRepository.addFavorite(userId, itemId, isMedia);
+        if (added) {
+            notifyListeners(userId, List.of(itemId), isMedia, true);
+        }
+        return added;
+    }
+
+    public boolean removeFavorite(int userId, int itemId, boolean isMedia) {
+        boolean removed = favoriteRepository.removeFavorite(userId, itemId, isMedia);
+        if (removed) {
+            notifyListeners(userId, List.of(itemId), isMedia, false);
+        }
+        return removed;
+    }
+
+    public List<Integer> addFavorites(int userId, Collection<Integer> itemIds, boolean isMedia) {
+        List<Integer> added = favoriteRepository.addFavorites(userId, itemIds, isMedia);
+        notifyListeners(userId, added, isMedia, true);
+        return added;
+    }
+
+    public List<Integer> removeFavorites(int userId, Collection<Integer> itemIds, boolean isMedia) {
+        List<Integer> removed = favoriteRepository.removeFavorites(userId, itemIds, isMedia);
+        notifyListeners(userId, removed, isMedia, false);
+        return removed;
+    }
+
+    public Set<Integer> getFavoritedIds(int userId, Collection<Integer> itemIds, boolean isMedia) {
+        FavoriteIndex index = getFavoriteIndex();
+        Set<Integer> favorited = new HashSet<>();
+        for (int itemId : itemIds) {
+            if (index.contains(userId, itemId, isMedia)) {
+                favorited.add(itemId);
+            }
+        }
+        return favorited;
+    }
+
+    public boolean isFavorite(int userId, int itemId, boolean isMedia) {
+        return getFavoriteIndex().contains(userId, itemId, isMedia);
     }
 
-    public void removeFavorite(int userId, int itemId, boolean isMedia) {
-        favoriteRepository.removeFavorite(userId, itemId, isMedia);
+    // Items most often favorited by the users who favorited itemId, strongest first.
+    public int[] getRecommendations(int itemId, int limit, boolean isMedia) {
+        getFavoriteIndex();
+        CoOccurrenceIndex coOccurrence = isMedia ? mediaCoOccurrence : characterCoOccurrence;
+        return coOccurrence.neighbours(itemId, limit);
     }
 
+    public int[] getFavoritesInCommon(int userId, int otherUserId, boolean isMedia) {
+        return getFavoriteIndex().common(userId, otherUserId, isMedia);
+    }
+
+    // Per-user totals come from the trigger-maintained counters, the same ones ProfileStats reads.
     public int countFavoriteMedia(int userId) {
         return favoriteRepository.countFavoriteMedia(userId);
     }
@@ -36,4 +122,92 @@ public class FavoriteService {
     public int countFavoriteCharacters(int userId) {
         return favoriteRepository.countFavoriteCharacters(userId);
     }
+
+    public int countFavoritesOf(int itemId, boolean isMedia) {
+        return favoriteRepository.countFavoritesOf(itemId, isMedia);
+    }
+
+    // At most LEADERBOARD_SIZE ids, most favorited first.
+    public int[] getMostFavorited(int limit, boolean isMedia) {
+        return getLeaderboard(isMedia).top(limit);
+    }
+
+    public void forgetItem(int itemId, boolean isMedia) {
+        FavoriteLeaderboard leaderboard = isMedia ? mediaLeaderboard : characterLeaderboard;
+        if (leaderboard != null) {
+            leaderboard.remove(itemId);
+        }
+        FavoriteIndex index = favoriteIndex;
+        if (index != null) {
+            index.removeItem(itemId, isMedia);
+        }
+        CoOccurrenceIndex coOccurrence = isMedia ? mediaCoOccurrence : characterCoOccurrence;
+        if (coOccurrence != null) {
+            coOccurrence.removeItem(itemId);
+        }
+    }
+
+    // The database drops the favorites rows of deleted items and users by trigger; these
+    // keep the in-memory indexes in step with it.
+    public void forgetUser(int userId) {
+        FavoriteIndex index = getFavoriteIndex();
+        for (boolean isMedia : new boolean[] {true, false}) {
+            int[] itemIds = index.ids(userId, isMedia);
+            refreshLeaderboard(Arrays.stream(itemIds).boxed().toList(), isMedia);
+            (isMedia ? mediaCoOccurrence : characterCoOccurrence).removeSet(itemIds);
+        }
+        index.removeUser(userId);
+    }
+
+    private void notifyListeners(int userId, List<Integer> itemIds, boolean isMedia, boolean added) {
+        refreshLeaderboard(itemIds, isMedia);
+        FavoriteIndex index = favoriteIndex;
+        CoOccurrenceIndex coOccurrence = isMedia ? mediaCoOccurrence : characterCoOccurrence;
+        for (int itemId : itemIds) {
+            if (index != null) {
+                int[] others = index.ids(userId, isMedia);
+                if (added) {
+                    coOccurrence.favoriteAdded(itemId, others);
+                    index.add(userId, itemId, isMedia);
+                } else {
+                    coOccurrence.favoriteRemoved(itemId, others);
+                    index.remove(userId, itemId, isMedia);
+                }
+            }
+            listeners.forEach(listener -> listener.favoriteChanged(userId, itemId, isMedia, added));
+        }
+    }
+
+    // Re-reads the stored counts of changed items, in one query, once the leaderboard is loaded.
+    private void refreshLeaderboard(List<Integer> itemIds, boolean isMedia) {
+        FavoriteLeaderboard leaderboard = isMedia ? mediaLeaderboard : characterLeaderboard;
+        if (leaderboard == null || itemIds.isEmpty()) return;
+
+        Map<Integer, Integer> counts = favoriteRepository.loadFavoriteCounts(itemIds, isMedia);
+        for (int itemId : itemIds) {
+            leaderboard.update(itemId, counts.getOrDefault(itemId, 0));
+        }
+    }
+
+    private FavoriteIndex getFavoriteIndex() {
+        FavoriteIndex index = favoriteIndex;
+        if (index == null) {
+            loadIndexes();
+            index = favoriteIndex;
+        }
+        return index;
+    }
+
+    private synchronized FavoriteLeaderboard getLeaderboard(boolean isMedia) {
+        FavoriteLeaderboard leaderboard = isMedia ? mediaLeaderboard : characterLeaderboard;
+        if (leaderboard == null) {
+            leaderboard = FavoriteLeaderboard.load(LEADERBOARD_SIZE, limit -> favoriteRepository.loadTopFavorited(limit, isMedia));
+            if (isMedia) {
+                mediaLeaderboard = leaderboard;
+            } else {
+                characterLeaderboard = leaderboard;
+            }
+        }
+        return leaderboard;
+    }
 }
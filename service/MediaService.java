@@ -1,20 +1,53 @@
 package service;
 
+import builder.MediaBuilder;
 import filter.FilterStrategy;
+import filter.GenreFilterStrategy;
+import filter.HashtagMediaFilterStrategy;
+import filter.IdFilterStrategy;
+import filter.SqlPredicate;
+import filter.TypeFilterStrategy;
 
+import component.Hashtags;
 import component.Media;
+import component.MediaDetails;
+import component.MediaGenre;
+import component.MediaSummary;
+import component.MediaType;
+import index.LazyIndex;
+import index.MediaCategoryIndex;
+import index.TagIndex;
 import repository.MediaRepository;
 import repository.CharacterRepository;
+import repository.Page;
+import repository.PageRequest;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 public class MediaService {
     private MediaRepository mediaRepository;
     private CharacterRepository characterRepository;
+    private final LazyIndex<MediaCategoryIndex> categoryIndex;
+    private final LazyIndex<TagIndex> tagIndex;
+    private final List<CatalogListener> listeners = new CopyOnWriteArrayList<>();
 
     public MediaService(MediaRepository mediaRepository, CharacterRepository characterRepository) {
         this.mediaRepository = mediaRepository;
         this.characterRepository = characterRepository;
+        this.categoryIndex = new LazyIndex<>(mediaRepository::loadCategoryIndex);
+        this.tagIndex = new LazyIndex<>(mediaRepository::loadTagIndex);
+    }
+
+    public void addListener(CatalogListener listener) {
+        listeners.add(listener);
     }
 
     public List<Media> getAllMedia() {
@@ -29,16 +62,107 @@ public class MediaService {
         return mediaRepository.findById(id);
     }
 
+    // Loads the ids in one query and returns them in the order given, skipping missing rows.
+    public List<Media> getMediaByIds(int[] ids) {
+        Map<Integer, Media> byId = new HashMap<>();
+        for (Media media : mediaRepository.findByIds(Arrays.stream(ids).boxed().toList())) {
+            byId.put(media.getId(), media);
+        }
+        return Arrays.stream(ids).mapToObj(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    public Set<Integer> getExistingMediaIds(Collection<Integer> ids) {
+        return mediaRepository.findExistingIds(ids);
+    }
+
+    public MediaDetails getMediaDetails(int id) {
+        return mediaRepository.findDetails(id);
+    }
+
     public List<Media> getFilteredMedia(FilterStrategy<Media> filter) {
-        return filter.apply(mediaRepository.findAll());
+        filter = indexed(filter);
+        SqlPredicate where = filter.toSql();
+        List<Media> candidates = where == null ? mediaRepository.findAll() : mediaRepository.findWhere(where);
+        return filter.applyRemaining(candidates);
     }
 
-    public void createMedia(String title, String description, String releaseDate, String type, String genre, String hashtags, int userId) {
-        mediaRepository.save(title, description, releaseDate, type, genre, hashtags, userId);
+    // Filters that cannot be pushed down run per page, so such pages may come back short.
+    public Page<Media> getMediaPage(FilterStrategy<Media> filter, PageRequest request) {
+        return findPage(indexed(filter), request);
+    }
+
+    public Page<MediaSummary> getMediaSummaryPage(FilterStrategy<Media> filter, PageRequest request) {
+        filter = indexed(filter);
+        if (filter.isFullyPushedDown()) {
+            return mediaRepository.findSummaryPage(filter.toSql(), request);
+        }
+        return findPage(filter, request).map(MediaSummary::of);
+    }
+
+    private Page<Media> findPage(FilterStrategy<Media> filter, PageRequest request) {
+        return mediaRepository.findPage(filter.toSql(), request).withItems(filter::applyRemaining);
+    }
+
+    public Stream<MediaSummary> streamMediaSummaries() {
+        return mediaRepository.streamSummaries();
+    }
+
+    public Stream<Media> streamFilteredMedia(FilterStrategy<Media> filter) {
+        filter = indexed(filter);
+        SqlPredicate where = filter.toSql();
+        Stream<Media> candidates = where == null ? mediaRepository.streamAll() : mediaRepository.streamWhere(where);
+        return filter.filterRemaining(candidates);
+    }
+
+    public Stream<Media> streamMediaByUser(int userId) {
+        return mediaRepository.streamByUserId(userId);
+    }
+
+    public void createMedia(String title, String description, String releaseDate, MediaType type, MediaGenre genre, String hashtags, int userId) {
+        int id = mediaRepository.save(title, description, releaseDate, type, genre, hashtags, userId);
+        if (id > 0) {
+            categoryIndex.update(index -> index.with(id, type, genre));
+            tagIndex.update(index -> index.with(id, Hashtags.parse(hashtags)));
+            listeners.forEach(listener -> listener.itemCreated(id, title, true));
+        }
+    }
+
+    public int[] createMediaBatch(List<MediaBuilder> media) {
+        int[] ids = mediaRepository.saveAll(media);
+        if (ids.length == 0) return ids;
+
+        MediaType[] types = media.stream().map(MediaBuilder::getType).toArray(MediaType[]::new);
+        MediaGenre[] genres = media.stream().map(MediaBuilder::getGenre).toArray(MediaGenre[]::new);
+        List<List<String>> tags = media.stream().map(m -> Hashtags.parse(m.getHashtags())).toList();
+        categoryIndex.update(index -> index.withAll(ids, types, genres));
+        tagIndex.update(index -> index.withAll(ids, tags));
+        List<String> names = media.stream().map(MediaBuilder::getTitle).toList();
+        listeners.forEach(listener -> listener.itemsCreated(ids, names, true));
+        return ids;
     }
 
     public void deleteMedia(int id) {
         mediaRepository.delete(id);
+        categoryIndex.update(index -> index.without(id));
+        tagIndex.update(index -> index.without(id));
+        listeners.forEach(listener -> listener.itemDeleted(id, true));
+    }
+
+    public int countMediaWithTags(List<String> tags, boolean matchAll) {
+        TagIndex index = tagIndex.get();
+        return (matchAll ? index.allOf(tags) : index.anyOf(tags)).length;
+    }
+
+    public int countMedia(Set<MediaType> types, Set<MediaGenre> genres) {
+        return categoryIndex.get().countMatching(types, genres);
+    }
+
+    public Map<MediaType, Integer> countMediaByType(Set<MediaGenre> genres) {
+        return categoryIndex.get().countByType(genres);
+    }
+
+    public Map<MediaGenre, Integer> countMediaByGenre(Set<MediaType> types) {
+        return categoryIndex.get().countByGenre(types);
     }
 
     public int getAuthorId(int mediaId) {
@@ -48,4 +172,22 @@ public class MediaService {
     public String getAuthorName(int mediaId) {
         return mediaRepository.getAuthorName(mediaId);
     }
+
+    // Type, genre and hashtag selections are answered from the in-memory indexes; the rest run as before.
+    private FilterStrategy<Media> indexed(FilterStrategy<Media> filter) {
+        return filter.rewrite(f -> {
+            if (f instanceof TypeFilterStrategy type && !type.getTypes().isEmpty()) {
+                return new IdFilterStrategy<>(categoryIndex.get().idsMatching(type.getTypes(), null), Media::getId);
+            }
+            if (f instanceof GenreFilterStrategy genre && !genre.getGenres().isEmpty()) {
+                return new IdFilterStrategy<>(categoryIndex.get().idsMatching(null, genre.getGenres()), Media::getId);
+            }
+            if (f instanceof HashtagMediaFilterStrategy tags) {
+                TagIndex index = tagIndex.get();
+                int[] ids = tags.isMatchAll() ? index.allOf(tags.getTags()) : index.anyOf(tags.getTags());
+                return new IdFilterStrategy<>(ids, Media::getId);
+            }
+            return f;
+        });
+    }
 }
@@ -0,0 +1,91 @@
+package service;
+
+import component.Character;
+import component.Media;
+import component.Suggestion;
+import index.PrefixIndex;
+import repository.SearchRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SearchService implements CatalogListener {
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private SearchRepository searchRepository;
+    private volatile PrefixIndex prefixIndex;
+
+    public SearchService(SearchRepository searchRepository) {
+        this.searchRepository = searchRepository;
+    }
+
+    public List<Media> searchMedia(String query, int limit) {
+        String matchQuery = toMatchQuery(query);
+        return matchQuery.isEmpty() ? List.of() : searchRepository.searchMedia(matchQuery, limit);
+    }
+
+    public List<Character> searchCharacters(String query, int limit) {
+        String matchQuery = toMatchQuery(query);
+        return matchQuery.isEmpty() ? List.of() : searchRepository.searchCharacters(matchQuery, limit);
+    }
+
+    // Title and name completions in PrefixIndex order (alphabetical); k is capped at MAX_SUGGESTIONS.
+    public List<Suggestion> suggest(String prefix, int k) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        return getPrefixIndex().suggest(prefix, Math.min(k, MAX_SUGGESTIONS));
+    }
+
+    @Override
+    public void itemCreated(int id, String name, boolean isMedia) {
+        PrefixIndex index = prefixIndex;
+        if (index != null) {
+            index.add(new Suggestion(id, name, isMedia));
+        }
+    }
+
+    @Override
+    public void itemsCreated(int[] ids, List<String> names, boolean isMedia) {
+        PrefixIndex index = prefixIndex;
+        if (index != null) {
+            List<Suggestion> suggestions = new ArrayList<>(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                suggestions.add(new Suggestion(ids[i], names.get(i), isMedia));
+            }
+            index.addAll(suggestions);
+        }
+    }
+
+    @Override
+    public void itemDeleted(int id, boolean isMedia) {
+        PrefixIndex index = prefixIndex;
+        if (index != null) {
+            index.remove(id, isMedia);
+        }
+    }
+
+    private synchronized PrefixIndex getPrefixIndex() {
+        PrefixIndex index = prefixIndex;
+        if (index == null) {
+            index = PrefixIndex.build(MAX_SUGGESTIONS, searchRepository.loadSuggestions());
+            prefixIndex = index;
+        }
+        return index;
+    }
+
+    static String toMatchQuery(String query) {
+        List<String> terms = new ArrayList<>();
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i <= query.length(); i++) {
+            char c = i < query.length() ? query.charAt(i) : ' ';
+            if (java.lang.Character.isLetterOrDigit(c)) {
+                term.append(c);
+            } else if (term.length() > 0) {
+                terms.add("\"" + term + "\"*");
+                term.setLength(0);
+            }
+        }
+        return String.join(" ", terms);
+    }
+}
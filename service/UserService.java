@@ -1,6 +1,9 @@
 package service;
 
+import component.ProfileStats;
 import component.User;
+import repository.Page;
+import repository.PageRequest;
 import repository.UserRepository;
 
 import java.util.List;
@@ -24,6 +27,10 @@ public class UserService {
         return userRepository.findAllExcept(userId);
     }
 
+    public Page<User> getUserPageExcept(int userId, PageRequest request) {
+        return userRepository.findPageExcept(userId, request);
+    }
+
     public void deleteUser(int userId) {
         userRepository.delete(userId);
     }
@@ -31,4 +38,8 @@ public class UserService {
     public boolean isAdmin(int userId) {
         return userRepository.isAdmin(userId);
     }
+
+    public ProfileStats getProfileStats(int userId) {
+        return userRepository.loadProfileStats(userId);
+    }
 }